@@ -0,0 +1,48 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thomazsilva.ecommerce.enums.FilterType;
+
+// Custo do despacho por FilterType para cada combinação de filtros.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterTypeBenchmark {
+
+    @Param({ "NAME_MIN_MAX", "NAME_MIN", "NAME_MAX", "NAME_ONLY", "MIN_MAX", "NONE" })
+    public FilterType filterType;
+
+    private String name;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Setup
+    public void setUp() {
+        Fixtures.Filter filter = Fixtures.filterFor(filterType);
+        name = filter.name();
+        minPrice = filter.minPrice();
+        maxPrice = filter.maxPrice();
+    }
+
+    @Benchmark
+    public FilterType detect() {
+        return FilterType.detect(name, minPrice, maxPrice);
+    }
+}
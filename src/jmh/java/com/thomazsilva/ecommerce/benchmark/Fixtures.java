@@ -0,0 +1,72 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.thomazsilva.ecommerce.enums.FilterType;
+import com.thomazsilva.ecommerce.model.Product;
+
+// Dados sintéticos compartilhados pelos benchmarks (semente fixa = execuções comparáveis).
+final class Fixtures {
+    private static final String[] ITEMS = { "Jaqueta", "Camisa", "Calça", "Vestido", "Saia", "Blusa", "Tênis", "Bolsa" };
+    private static final String[] DETAILS = { "jeans", "vintage", "couro", "linho", "estampada", "listrada", "xadrez" };
+
+    record Filter(String name, BigDecimal minPrice, BigDecimal maxPrice) {}
+
+    private Fixtures() {}
+
+    static List<Product> products(int count, boolean withIds) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product(ITEMS[random.nextInt(ITEMS.length)] + " "
+                + DETAILS[random.nextInt(DETAILS.length)] + " " + i);
+            if (withIds) product.setId((long) i + 1);
+            product.setPrice(BigDecimal.valueOf(500 + random.nextInt(50_000), 2));
+            product.setDescription("Peça única de brechó em ótimo estado, número " + i + ".");
+            product.setImageUrl("https://cdn.example.com/products/" + i + ".jpg");
+            products.add(product);
+        }
+        return products;
+    }
+
+    static Filter filterFor(FilterType type) {
+        BigDecimal min = new BigDecimal("50.00");
+        BigDecimal max = new BigDecimal("150.00");
+        switch (type) {
+            case NAME_MIN_MAX: return new Filter("jaqueta", min, max);
+            case NAME_MIN: return new Filter("jaqueta", min, null);
+            case NAME_MAX: return new Filter("jaqueta", null, max);
+            case NAME_ONLY: return new Filter("jaqueta", null, null);
+            case MIN_MAX: return new Filter(null, min, max);
+            case NONE:
+            default: return new Filter(null, null, null);
+        }
+    }
+
+    // Popula a tabela product de um PostgreSQL com "rows" produtos via generate_series (os mesmos
+    // nomes de products()), a não ser que ela já tenha exatamente essa quantidade.
+    static void seedPostgres(JdbcTemplate jdbc, int rows) {
+        Long existing = jdbc.queryForObject("SELECT count(*) FROM product", Long.class);
+        if (existing != null && existing == rows) return;
+        jdbc.execute("TRUNCATE product");
+        jdbc.update("""
+            INSERT INTO product (id, name, price, description, image_url, version, updated_at)
+            SELECT n,
+                   (ARRAY['Jaqueta','Camisa','Calça','Vestido','Saia','Blusa','Tênis','Bolsa'])[1 + n % 8]
+                       || ' ' || (ARRAY['jeans','vintage','couro','linho','estampada','listrada','xadrez'])[1 + n % 7]
+                       || ' ' || n,
+                   5 + (n::bigint * 7919 % 50000) / 100.0,
+                   'Peça única de brechó em ótimo estado, número ' || n || '.',
+                   'https://cdn.example.com/products/' || n || '.jpg',
+                   0, now()
+            FROM generate_series(1, ?) n
+            """, rows);
+        jdbc.execute("SELECT setval('product_seq', " + (rows + 50) + ")");
+        jdbc.execute("ANALYZE product");
+    }
+}
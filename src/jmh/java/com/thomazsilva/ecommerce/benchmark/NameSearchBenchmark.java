@@ -0,0 +1,97 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thomazsilva.ecommerce.EcommerceApplication;
+
+// Filtro por nome antes e depois do índice GIN pg_trgm (idx_product_name_trgm): a mesma
+// consulta "lower(name) LIKE" (primeira página + count, como o Page fazia), uma vez com o
+// índice e outra com bitmap scan desligado na transação, o que deixa o GIN de fora e volta ao
+// seq scan de antes. Vai direto pelo JdbcTemplate para o cache de consultas do Hibernate não
+// entrar na medida. SampleTime para ter os percentis (p99). Mesmo PostgreSQL e mesma carga do
+// ProductSearchBenchmark:
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.includes=NameSearchBenchmark -Djmh.rows=1000000
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+    private static final String PAGE = "SELECT * FROM product WHERE lower(name) LIKE ? ESCAPE '\\' LIMIT 20";
+    private static final String COUNT = "SELECT count(*) FROM product WHERE lower(name) LIKE ? ESCAPE '\\'";
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "jdbc:postgresql://localhost:5432/ecommerce_bench" })
+    public String url;
+
+    // Termo frequente (1 em 8 produtos) e termo raro (algumas dezenas de produtos).
+    @Param({ "jaqueta", "12345" })
+    public String term;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transaction;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        jdbc = context.getBean(JdbcTemplate.class);
+        transaction = context.getBean(TransactionTemplate.class);
+        Fixtures.seedPostgres(jdbc, rows);
+        pattern = "%" + term.toLowerCase() + "%";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long withoutTrigramIndex() {
+        return transaction.execute(status -> {
+            jdbc.execute("SET LOCAL enable_bitmapscan = off");
+            return search();
+        });
+    }
+
+    @Benchmark
+    public long withTrigramIndex() {
+        return transaction.execute(status -> search());
+    }
+
+    private long search() {
+        List<Map<String, Object>> page = jdbc.queryForList(PAGE, pattern);
+        Long total = jdbc.queryForObject(COUNT, Long.class, pattern);
+        return page.size() + total;
+    }
+}
@@ -0,0 +1,104 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.thomazsilva.ecommerce.EcommerceApplication;
+import com.thomazsilva.ecommerce.enums.FilterType;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+import com.thomazsilva.ecommerce.service.ProductService;
+
+// findById e filterByNameAndPricePaginated contra H2 em modo PostgreSQL, com "rows"
+// produtos gerados por Fixtures. O contexto Spring é o da aplicação, só trocando o banco.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductQueryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({ "10000" })
+        public int rows;
+
+        ConfigurableApplicationContext context;
+        ProductService productService;
+        long[] ids;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.flyway.enabled=false",
+                    "--logging.level.root=WARN");
+            productService = context.getBean(ProductService.class);
+
+            ProductRepository repository = context.getBean(ProductRepository.class);
+            List<Product> products = Fixtures.products(rows, false);
+            for (int from = 0; from < products.size(); from += 1000) {
+                repository.saveAll(products.subList(from, Math.min(from + 1000, products.size())));
+            }
+            ids = products.stream().mapToLong(Product::getId).toArray();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+        @Param({ "NAME_MIN_MAX", "NAME_MIN", "NAME_MAX", "NAME_ONLY", "MIN_MAX", "NONE" })
+        public FilterType filterType;
+
+        Fixtures.Filter values;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            values = Fixtures.filterFor(filterType);
+        }
+    }
+
+    @Benchmark
+    public Product findById(Database db) {
+        long id = db.ids[db.next++ % db.ids.length];
+        return db.productService.findById(id);
+    }
+
+    @Benchmark
+    public Page<Product> filterByNameAndPricePaginated(Database db, Filter filter) {
+        return db.productService.filterByNameAndPricePaginated(
+            filter.values.name(), filter.values.minPrice(), filter.values.maxPrice(), PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,136 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.thomazsilva.ecommerce.EcommerceApplication;
+import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
+import com.thomazsilva.ecommerce.exception.ReservationConflictException;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+import com.thomazsilva.ecommerce.service.ProductReservationService;
+import com.thomazsilva.ecommerce.service.ProductService;
+
+// Disputa por uma peça única: "claimants" clientes tentam reservar o mesmo produto ao mesmo
+// tempo (liberados juntos por um latch). Uma operação = uma disputa inteira; cada uma confere
+// que houve exatamente um vencedor. Compara o serviço (portão em memória + UPDATE condicional)
+// com o UPDATE condicional sozinho, todos os clientes indo ao banco. Precisa de PostgreSQL:
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ProductReservationBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductReservationBenchmark {
+
+    @Param({ "1000" })
+    public int claimants;
+
+    @Param({ "jdbc:postgresql://localhost:5432/ecommerce_bench" })
+    public String url;
+
+    private ConfigurableApplicationContext context;
+    private ProductReservationService reservationService;
+    private ProductRepository repository;
+    private ExecutorService executor;
+    private Long productId;
+    private UUID winner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        reservationService = context.getBean(ProductReservationService.class);
+        repository = context.getBean(ProductRepository.class);
+        productId = context.getBean(ProductService.class)
+            .createProduct(new ProductRequestDTO("Jaqueta jeans única", new BigDecimal("89.90"), null, null))
+            .getId();
+        executor = Executors.newFixedThreadPool(claimants);
+    }
+
+    // Devolve a peça para a próxima disputa (e reabre o portão do serviço).
+    @TearDown(Level.Invocation)
+    public void release() {
+        reservationService.release(productId, winner);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        repository.deleteById(productId);
+        context.close();
+    }
+
+    @Benchmark
+    public UUID gated() throws Exception {
+        return race(() -> {
+            try {
+                return reservationService.reserve(productId).token();
+            } catch (ReservationConflictException ex) {
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public UUID conditionalUpdateOnly() throws Exception {
+        return race(() -> {
+            UUID token = UUID.randomUUID();
+            return repository.tryReserve(productId, token, Duration.ofMinutes(10)).isPresent() ? token : null;
+        });
+    }
+
+    private UUID race(Callable<UUID> claim) throws InterruptedException, ExecutionException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UUID>> results = new ArrayList<>(claimants);
+        for (int i = 0; i < claimants; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return claim.call();
+            }));
+        }
+        start.countDown();
+        winner = null;
+        int winners = 0;
+        for (Future<UUID> result : results) {
+            UUID token = result.get();
+            if (token != null) {
+                winner = token;
+                winners++;
+            }
+        }
+        if (winners != 1) throw new IllegalStateException(winners + " vencedores para uma peça única");
+        return winner;
+    }
+}
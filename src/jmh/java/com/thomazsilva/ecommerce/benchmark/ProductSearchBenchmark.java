@@ -0,0 +1,81 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.thomazsilva.ecommerce.EcommerceApplication;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+import com.thomazsilva.ecommerce.service.ProductService;
+
+// Busca por nome (LIKE + trigram) x busca textual (tsvector + ts_rank), primeira página com
+// count. Precisa de um PostgreSQL de verdade (H2 não tem tsvector): o esquema do banco em
+// "url" vem das migrações e a tabela é populada com "rows" produtos via generate_series.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ProductSearchBenchmark -Djmh.rows=1000000
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "jdbc:postgresql://localhost:5432/ecommerce_bench" })
+    public String url;
+
+    @Param({ "jaqueta", "jaqueta jeans" })
+    public String term;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+
+        Fixtures.seedPostgres(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> nameLike() {
+        return productService.filterPaginated(new ProductFilter(term, null, null), PageRequest.of(0, 20), null);
+    }
+
+    @Benchmark
+    public Page<Product> fullText() {
+        return productService.search(term, ProductFilter.NONE, PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,105 @@
+package com.thomazsilva.ecommerce.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thomazsilva.ecommerce.dto.PageResponseDTO;
+import com.thomazsilva.ecommerce.dto.ProductResponseDTO;
+import com.thomazsilva.ecommerce.model.Product;
+
+// Serialização de uma página de listagem, do formato antigo ao atual. O profile "benchmark"
+// roda com -prof gc: gc.alloc.rate.norm é a alocação por resposta (bytes/op).
+// - pageImplOfEntities: PageImpl<Product> por reflexão (antigo /products/search e /paginated)
+// - pageImplOfDTOs: PageImpl<ProductResponseDTO> por reflexão (antigo GET /products)
+// - pageResponseReflection: PageResponseDTO, mas ProductResponseDTO ainda por reflexão
+// - pageResponse: PageResponseDTO + ProductResponseDTOSerializer (atual)
+// - pageResponseGzip: atual + gzip, como o Tomcat faz com server.compression
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSerializationBenchmark {
+
+    @Param({ "10", "50" })
+    public int pageSize;
+
+    private List<Product> products;
+    private ObjectMapper objectMapper;
+    private ObjectMapper reflectionMapper;
+
+    // Desfaz o @JsonSerialize do record: volta ao BeanSerializer padrão do Jackson.
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface ReflectionSerialization {}
+
+    @Setup
+    public void setUp() {
+        products = Fixtures.products(pageSize, true);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reflectionMapper = Jackson2ObjectMapperBuilder.json()
+            .mixIn(ProductResponseDTO.class, ReflectionSerialization.class)
+            .build();
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> toDTO() {
+        return products.stream().map(Product::toDTO).toList();
+    }
+
+    @Benchmark
+    public byte[] pageImplOfEntities() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @Benchmark
+    public byte[] pageImplOfDTOs() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(dtoPage());
+    }
+
+    @Benchmark
+    public byte[] pageResponseReflection() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(PageResponseDTO.of(dtoPage()));
+    }
+
+    @Benchmark
+    public byte[] pageResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(PageResponseDTO.of(dtoPage()));
+    }
+
+    @Benchmark
+    public byte[] pageResponseGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, PageResponseDTO.of(dtoPage()));
+        }
+        return bytes.toByteArray();
+    }
+
+    private Page<ProductResponseDTO> dtoPage() {
+        return new PageImpl<>(products.stream().map(Product::toDTO).toList(), PageRequest.of(0, pageSize), 10_000);
+    }
+}
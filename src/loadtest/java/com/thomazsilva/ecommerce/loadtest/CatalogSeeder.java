@@ -0,0 +1,55 @@
+package com.thomazsilva.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Gera um catálogo determinístico (semente fixa) e envia pela própria rota de importação
+// (POST /products/import, NDJSON), em lotes, até a base ter "rows" produtos.
+final class CatalogSeeder {
+    private static final String[] TYPES = { "Jaqueta", "Camisa", "Calça", "Vestido", "Saia", "Blusa", "Tênis", "Bolsa" };
+    private static final String[] DETAILS = { "jeans", "vintage", "couro", "linho", "estampada", "listrada", "xadrez" };
+    private static final int LINES_PER_REQUEST = 5000;
+    // Um lote de importação leva bem mais que as requisições das fases.
+    private static final Duration IMPORT_TIMEOUT = Duration.ofMinutes(5);
+
+    private CatalogSeeder() {}
+
+    static String randomWord(ThreadLocalRandom random) {
+        return random.nextBoolean() ? TYPES[random.nextInt(TYPES.length)] : DETAILS[random.nextInt(DETAILS.length)];
+    }
+
+    // Produto completo (todos os campos do ProductRequestDTO), usado na semeadura e no PUT do
+    // cenário UPDATE: a atualização não apaga descrição nem muda o formato do catálogo.
+    static String productJson(Random random, long n) {
+        return "{\"name\":\"" + TYPES[random.nextInt(TYPES.length)] + ' ' + DETAILS[random.nextInt(DETAILS.length)]
+            + ' ' + n + "\",\"price\":" + String.format(Locale.ROOT, "%.2f", 5 + random.nextInt(50000) / 100.0)
+            + ",\"description\":\"Peça única de brechó em ótimo estado, número " + n + ".\",\"imageUrl\":null}";
+    }
+
+    static void seed(HttpClient client, URI baseUrl, long existing, long rows) throws IOException, InterruptedException {
+        Random random = new Random(42 + existing);
+        for (long from = existing; from < rows; from += LINES_PER_REQUEST) {
+            StringBuilder body = new StringBuilder(LINES_PER_REQUEST * 160);
+            for (long n = from; n < Math.min(from + LINES_PER_REQUEST, rows); n++) {
+                body.append(productJson(random, n)).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/products/import"))
+                .timeout(IMPORT_TIMEOUT)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Importação falhou (HTTP " + response.statusCode() + "): " + response.body());
+            }
+            System.out.printf("  %d/%d produtos%n", Math.min(from + LINES_PER_REQUEST, rows), rows);
+        }
+    }
+}
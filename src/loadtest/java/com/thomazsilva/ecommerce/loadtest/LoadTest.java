@@ -0,0 +1,235 @@
+package com.thomazsilva.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Teste de carga das rotas do ProductController contra uma aplicação já rodando
+// (mvn spring-boot:run, com ou sem -Dspring-boot.run.profiles=prod).
+// - Semeia a base pela rota de importação até "loadtest.seed-rows" produtos (CatalogSeeder).
+// - Para cada cenário isolado e depois para a mistura ponderada ("mixed"): aquecimento e
+//   medição em laço fechado com "loadtest.concurrency" clientes.
+// - Relata vazão, p50/p99/max e, pelo actuator, a espera média por conexão do Hikari
+//   (hikaricp.connections.acquire) e o tempo médio com a conexão em uso
+//   (hikaricp.connections.usage) na janela de cada fase.
+// - Requisição sem resposta em "loadtest.request-timeout" conta como erro.
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.concurrency=64 -Dloadtest.duration=PT30S
+public final class LoadTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int MAX_IDS = 50_000;
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration requestTimeout;
+
+    private LoadTest(URI baseUrl, int concurrency, Duration warmup, Duration duration, Duration requestTimeout) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI baseUrl = URI.create(System.getProperty("loadtest.base-url", "http://localhost:8080"));
+        long seedRows = Long.getLong("loadtest.seed-rows", 100_000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT15S"));
+        Duration requestTimeout = Duration.parse(System.getProperty("loadtest.request-timeout", "PT30S"));
+        Scenario[] scenarios = parseScenarios(System.getProperty("loadtest.scenarios", "all"));
+        Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.csv"));
+
+        LoadTest test = new LoadTest(baseUrl, concurrency, warmup, duration, requestTimeout);
+        long existing = test.getJson("/products?size=1").path("totalElements").asLong();
+        if (existing < seedRows) {
+            System.out.printf("Semeando %d produtos (base com %d)%n", seedRows - existing, existing);
+            CatalogSeeder.seed(test.client, baseUrl, existing, seedRows);
+        }
+        Scenario.Target target = new Scenario.Target(baseUrl, test.collectIds(), requestTimeout);
+        System.out.printf("Alvo %s: %d ids, pool Hikari máx. %.0f, %d clientes, aquecimento %s, medição %s%n",
+            baseUrl, target.ids().length, test.metric("hikaricp.connections.max", "VALUE"),
+            concurrency, warmup, duration);
+
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            results.add(test.phase(scenario.name(), new Scenario[] { scenario }, target));
+        }
+        if (scenarios.length > 1) results.add(test.phase("MIXED", scenarios, target));
+
+        System.out.println();
+        System.out.println(Result.HEADER);
+        results.forEach(row -> System.out.println(row.line()));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        List<String> csv = new ArrayList<>();
+        csv.add(Result.CSV_HEADER);
+        results.forEach(row -> csv.add(row.csv()));
+        Files.write(result, csv);
+        System.out.println("Resultado em " + result.toAbsolutePath());
+    }
+
+    // -----------------------
+    // FASES
+    // -----------------------
+    private Result phase(String name, Scenario[] scenarios, Scenario.Target target) throws Exception {
+        System.out.printf("%s: aquecendo...%n", name);
+        drive(scenarios, target, warmup, null, null);
+
+        Pool before = pool();
+        Recorder recorder = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        drive(scenarios, target, duration, recorder, errors);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Pool after = pool();
+
+        Histogram latency = recorder.getIntervalHistogram();
+        Result result = new Result(name, latency.getTotalCount(), latency.getTotalCount() / seconds,
+            latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6, latency.getMaxValue() / 1e6,
+            errors.sum(), after.minus(before), latency.getTotalCount());
+        System.out.println(result.line());
+        return result;
+    }
+
+    // Laço fechado: cada cliente envia a próxima requisição assim que a anterior responde.
+    private void drive(Scenario[] scenarios, Scenario.Target target, Duration length, Recorder recorder,
+        LongAdder errors) throws Exception {
+        int totalWeight = Arrays.stream(scenarios).mapToInt(scenario -> scenario.weight).sum();
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                running.add(workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = Scenario.pick(scenarios, totalWeight, random).request(target, random);
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            ok = status < 400;
+                        } catch (IOException ex) {
+                            ok = false;
+                        }
+                        if (recorder != null) recorder.recordValue(System.nanoTime() - sent);
+                        if (!ok && errors != null) errors.increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) worker.get();
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+    private long[] collectIds() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            JsonNode page = getJson("/products/scroll?size=1000" + (after != null ? "&after=" + after : ""));
+            page.path("content").forEach(product -> ids.add(product.path("id").asLong()));
+            after = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (after != null && ids.size() < MAX_IDS);
+        if (ids.isEmpty()) throw new IllegalStateException("Nenhum produto na base");
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Pool pool() throws IOException, InterruptedException {
+        return new Pool(
+            metric("hikaricp.connections.acquire", "COUNT"), metric("hikaricp.connections.acquire", "TOTAL_TIME"),
+            metric("hikaricp.connections.usage", "COUNT"), metric("hikaricp.connections.usage", "TOTAL_TIME"));
+    }
+
+    private double metric(String name, String statistic) throws IOException, InterruptedException {
+        for (JsonNode measurement : getJson("/actuator/metrics/" + name).path("measurements")) {
+            if (statistic.equals(measurement.path("statistic").asText())) return measurement.path("value").asDouble();
+        }
+        return Double.NaN;
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(requestTimeout).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IOException("GET " + path + " -> HTTP " + response.statusCode());
+        return JSON.readTree(response.body());
+    }
+
+    private static Scenario[] parseScenarios(String value) {
+        if (value.isBlank() || value.equalsIgnoreCase("all")) return Scenario.values();
+        return Arrays.stream(value.split(","))
+            .map(name -> Scenario.valueOf(name.trim().toUpperCase(Locale.ROOT)))
+            .toArray(Scenario[]::new);
+    }
+
+    // Contadores acumulados do Hikari (tempos em segundos, como o actuator devolve).
+    private record Pool(double acquireCount, double acquireSeconds, double usageCount, double usageSeconds) {
+        Pool minus(Pool other) {
+            return new Pool(acquireCount - other.acquireCount, acquireSeconds - other.acquireSeconds,
+                usageCount - other.usageCount, usageSeconds - other.usageSeconds);
+        }
+    }
+
+    private record Result(String phase, long requests, double throughput, double p50, double p99, double max,
+        long errors, Pool pool, long total) {
+        static final String HEADER = String.format(Locale.ROOT, "%-13s %9s %9s %9s %9s %9s %7s %12s %10s %11s",
+            "fase", "reqs", "req/s", "p50 ms", "p99 ms", "max ms", "erros", "acquire ms", "conn/req", "em uso ms");
+        static final String CSV_HEADER =
+            "phase,requests,throughput,p50_ms,p99_ms,max_ms,errors,acquire_mean_ms,connections_per_request,usage_mean_ms";
+
+        double acquireMeanMs() {
+            return pool.acquireCount() > 0 ? pool.acquireSeconds() * 1000 / pool.acquireCount() : 0;
+        }
+
+        double connectionsPerRequest() {
+            return total > 0 ? pool.acquireCount() / total : 0;
+        }
+
+        double usageMeanMs() {
+            return pool.usageCount() > 0 ? pool.usageSeconds() * 1000 / pool.usageCount() : 0;
+        }
+
+        String line() {
+            return String.format(Locale.ROOT, "%-13s %9d %9.1f %9.2f %9.2f %9.2f %7d %12.3f %10.2f %11.3f",
+                phase, requests, throughput, p50, p99, max, errors, acquireMeanMs(), connectionsPerRequest(), usageMeanMs());
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%.1f,%.3f,%.3f,%.3f,%d,%.4f,%.3f,%.4f",
+                phase, requests, throughput, p50, p99, max, errors, acquireMeanMs(), connectionsPerRequest(), usageMeanMs());
+        }
+    }
+}
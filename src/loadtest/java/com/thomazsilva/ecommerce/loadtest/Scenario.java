@@ -0,0 +1,98 @@
+package com.thomazsilva.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Rotas do ProductController exercitadas pelo teste de carga. O peso só vale na fase "mixed"
+// (proporção aproximada do tráfego de vitrine: muito detalhe e listagem, pouca escrita).
+enum Scenario {
+    DETAIL(55) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            return target.get("/products/" + target.randomId(random));
+        }
+    },
+    LIST(15) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            return target.get("/products?size=20&page=" + random.nextInt(50) + "&sort=price,asc");
+        }
+    },
+    LIST_BY_NAME(10) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            return target.get("/products?size=20&name=" + encode(CatalogSeeder.randomWord(random)));
+        }
+    },
+    SEARCH(5) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            return target.get("/products/search?size=20&q=" + encode(CatalogSeeder.randomWord(random)));
+        }
+    },
+    POPULAR(5) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            return target.get("/products?size=20&sort=popular&page=" + random.nextInt(5));
+        }
+    },
+    FACETS(5) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            String name = random.nextBoolean() ? "" : "?name=" + encode(CatalogSeeder.randomWord(random));
+            return target.get("/products/facets" + name);
+        }
+    },
+    UPDATE(5) {
+        @Override
+        HttpRequest request(Target target, ThreadLocalRandom random) {
+            long id = target.randomId(random);
+            return target.builder("/products/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(CatalogSeeder.productJson(random, id)))
+                .build();
+        }
+    };
+
+    final int weight;
+
+    Scenario(int weight) {
+        this.weight = weight;
+    }
+
+    abstract HttpRequest request(Target target, ThreadLocalRandom random);
+
+    // Sorteio ponderado entre os cenários informados.
+    static Scenario pick(Scenario[] scenarios, int totalWeight, ThreadLocalRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight;
+            if (roll < 0) return scenario;
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Aplicação sob teste + ids existentes (lidos antes das fases). Requisição sem resposta
+    // dentro de "timeout" conta como erro, em vez de prender o cliente até o fim da fase.
+    record Target(URI baseUrl, long[] ids, Duration timeout) {
+        long randomId(ThreadLocalRandom random) {
+            return ids[random.nextInt(ids.length)];
+        }
+
+        HttpRequest.Builder builder(String path) {
+            return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout).header("Accept-Encoding", "gzip");
+        }
+
+        HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+    }
+}
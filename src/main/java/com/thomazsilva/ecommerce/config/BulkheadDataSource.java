@@ -0,0 +1,104 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Limita quantas conexões estão emprestadas ao mesmo tempo: quem passa do limite espera no
+// semáforo (barato para uma virtual thread) em vez de se acumular na fila do Hikari. A licença
+// vale do getConnection ao close da conexão, então acertos de cache que não tocam o banco
+// não ocupam licença. Sem licença dentro de "acquire-timeout": SQLTransientConnectionException,
+// o mesmo que o Hikari lança quando o pool esgota (503 no GlobalExceptionHandler).
+class BulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    BulkheadDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withPermit(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withPermit(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    // Este objeto substitui o bean "dataSource": o fechamento do pool no shutdown é repassado.
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) pool.close();
+    }
+
+    private void acquire() throws SQLException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(
+                "Nenhuma conexão livre em " + acquireTimeoutMillis + " ms (product.bulkhead.max-concurrent)");
+        }
+    }
+
+    // Devolve a licença no primeiro close; os demais métodos vão direto para a conexão real.
+    private Connection withPermit(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+            new Class<?>[] { ConnectionProxy.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getTargetConnection":
+                        return target;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) permits.release();
+                        }
+                        return null;
+                    default:
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                }
+            });
+    }
+}
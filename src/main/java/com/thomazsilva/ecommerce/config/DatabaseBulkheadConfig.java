@@ -0,0 +1,37 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Com virtual threads (spring.threads.virtual.enabled=true, Java 21+) o Tomcat deixa de
+// limitar quantas requisições rodam ao mesmo tempo. O DataSource principal ("dataSource",
+// inclusive o proxy das réplicas) passa a emprestar no máximo "product.bulkhead.max-concurrent"
+// conexões de uma vez (BulkheadDataSource), só enquanto a conexão está em uso.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+
+    // static: o post-processor é criado antes dos demais beans desta configuração.
+    @Bean
+    public static BeanPostProcessor databaseBulkhead(
+        @Value("${product.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+        @Value("${product.bulkhead.acquire-timeout:PT5S}") Duration acquireTimeout
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
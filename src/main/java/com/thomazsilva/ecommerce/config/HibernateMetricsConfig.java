@@ -0,0 +1,17 @@
+package com.thomazsilva.ecommerce.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.thomazsilva.ecommerce.metrics.QueryCountInspector;
+
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+}
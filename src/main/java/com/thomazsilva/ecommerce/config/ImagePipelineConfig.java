@@ -0,0 +1,52 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Executor do pipeline de imagens e publicação das miniaturas geradas em /images/**.
+@Configuration
+public class ImagePipelineConfig implements WebMvcConfigurer {
+    private final Path storageDir;
+    private final String publicPath;
+
+    public ImagePipelineConfig(
+        @Value("${product.images.storage-dir:data/images}") Path storageDir,
+        @Value("${product.images.public-path:/images}") String publicPath
+    ) {
+        this.storageDir = storageDir;
+        this.publicPath = publicPath;
+    }
+
+    // Pool e fila limitados: o processamento de imagens nunca disputa mais que "workers"
+    // threads (nem conexões) com as requisições. Fila cheia -> TaskRejectedException, tratada
+    // pelo ProductImageService deixando o produto para a varredura.
+    @Bean
+    public ThreadPoolTaskExecutor imageExecutor(
+        @Value("${product.images.workers:2}") int workers,
+        @Value("${product.images.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-image-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    // Os nomes das miniaturas mudam junto com a imagem de origem: cache de um ano é seguro.
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = storageDir.toAbsolutePath().normalize().toUri().toString();
+        registry.addResourceHandler(publicPath + "/**")
+            .addResourceLocations(location.endsWith("/") ? location : location + "/")
+            .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+    }
+}
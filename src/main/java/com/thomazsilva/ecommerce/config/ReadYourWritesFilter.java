@@ -0,0 +1,79 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Read-your-writes por cliente com réplicas: quem escreve em /products recebe um cookie com o
+// instante até o qual suas leituras vão ao primário, em qualquer instância da aplicação.
+// O cookie é gravado antes da escrita (a resposta ainda não foi enviada); uma escrita que
+// falha só manda as leituras desse cliente ao primário por alguns segundos.
+@Component
+@ConditionalOnProperty(name = "product.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE = "read-primary-until";
+
+    private final long stickyMillis;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.stickyMillis = replicaRoutingDataSource.readYourWritesMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request)) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(now + stickyMillis))
+                .path("/")
+                .maxAge(Duration.ofMillis(stickyMillis))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        ReplicaRoutingDataSource.forcePrimary(stickyUntil(request) > now);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.forcePrimary(false);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+            && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    // Valor adulterado (não numérico ou além do prazo) é ignorado: o cliente não prende as
+    // próprias leituras no primário além de uma janela.
+    private long stickyUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) return 0L;
+        try {
+            long until = Long.parseLong(cookie.getValue());
+            return until - System.currentTimeMillis() <= stickyMillis ? until : 0L;
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Réplicas de leitura (product.replicas.enabled=true). As transações @Transactional(readOnly = true)
+// (leituras do ProductService, facetas, métodos de consulta dos repositórios) usam uma réplica;
+// escritas, Flyway e transações de escrita continuam no primário.
+// - LazyConnectionDataSourceProxy: a conexão física só é obtida no primeiro comando, quando o
+//   JpaTransactionManager já marcou a conexão como read-only; conexões read-only vão para o
+//   ReplicaRoutingDataSource, as demais para o pool do primário.
+// - Exige spring.jpa.open-in-view=false: com open-in-view a sessão do Hibernate segura a mesma
+//   conexão a requisição inteira, e uma escrita depois de uma leitura cairia na réplica.
+@Configuration
+@ConditionalOnProperty(name = "product.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    public ReplicaRoutingConfig(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("product.replicas.enabled exige spring.jpa.open-in-view=false");
+        }
+    }
+
+    // Pool do primário com as mesmas propriedades spring.datasource.* da configuração padrão.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+        DataSourceProperties properties, MeterRegistry meterRegistry,
+        @Value("${product.replicas.urls}") List<String> urls,
+        @Value("${product.replicas.username:${spring.datasource.username:}}") String username,
+        @Value("${product.replicas.password:${spring.datasource.password:}}") String password,
+        @Value("${product.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+        @Value("${product.replicas.max-lag:PT1S}") Duration maxLag,
+        @Value("${product.replicas.lag-check-interval:PT1S}") Duration lagCheckInterval,
+        @Value("${product.replicas.read-your-writes:PT5S}") Duration readYourWrites
+    ) {
+        if (urls.isEmpty()) throw new IllegalArgumentException("product.replicas.urls vazio");
+        // Uma réplica só recebe leituras com atraso <= max-lag, medido há no máximo um intervalo:
+        // depois desse prazo ela já aplicou a escrita.
+        if (readYourWrites.compareTo(maxLag.plus(lagCheckInterval)) < 0) {
+            throw new IllegalArgumentException(
+                "product.replicas.read-your-writes deve ser >= max-lag + lag-check-interval");
+        }
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Réplica fora do ar não impede a subida: a verificação de atraso a deixa de fora.
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
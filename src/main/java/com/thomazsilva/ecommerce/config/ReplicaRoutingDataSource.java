@@ -0,0 +1,198 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+// Destino das conexões read-only (ver ReplicaRoutingConfig): réplicas em round-robin, com
+// volta ao primário quando
+// - nenhuma réplica está dentro do atraso máximo ("product.replicas.max-lag"), medido a cada
+//   "product.replicas.lag-check-interval" contra a posição atual do WAL do primário, ou com o
+//   WAL receiver em streaming;
+// - esta instância fez commit de escrita e as réplicas ainda não aplicaram esse ponto do WAL: os
+//   caches (Spring e segundo nível) não são repreenchidos por uma réplica que ainda não viu a
+//   escrita. A janela termina na primeira verificação em que as réplicas alcançaram o primário
+//   (transação sem alteração não gera WAL) ou, no máximo, em "product.replicas.read-your-writes";
+// - o cliente escreveu há pouco, talvez em outra instância (cookie do ReadYourWritesFilter).
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements TransactionExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+    // Parâmetro: posição do WAL do primário lida antes desta consulta. Réplica que já aplicou até
+    // ali: atraso 0. Senão, tempo desde o último commit aplicado (superestima logo depois de um
+    // período sem escritas); comparar com o que a própria réplica recebeu diria 0 com o WAL
+    // receiver desconectado. Fora de recuperação (não é réplica) ou sem a posição do primário, o
+    // atraso vem NULL ou pelo timestamp. A segunda coluna diz se a réplica alcançou o primário; a
+    // terceira, se o WAL receiver está em streaming (status só é visível com pg_read_all_stats;
+    // sem ele, basta o processo existir).
+    private static final String LAG_QUERY = """
+        SELECT CASE WHEN pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()) <= 0 THEN 0
+                ELSE EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) END,
+            coalesce(pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()) <= 0, false),
+            coalesce((SELECT coalesce(status = 'streaming', pid IS NOT NULL) FROM pg_stat_wal_receiver), false)
+        """;
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    // Réplicas dentro do atraso máximo; vazia até a primeira verificação.
+    private volatile List<String> healthy = List.of();
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    // Fim (epoch ms) da janela de leituras no primário depois de uma escrita; 0 = sem janela.
+    // Cresce a cada commit, para a verificação de atraso não zerar a janela de uma escrita
+    // posterior à leitura do WAL do primário (compareAndSet).
+    private final AtomicLong primaryUntil = new AtomicLong();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, Map<String, HikariDataSource> replicas,
+        Duration maxLag, Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesMillis = readYourWrites.toMillis();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        for (Object name : targets.keySet()) {
+            routed.put((String) name, Counter.builder("product.replicas.connections")
+                .description("Conexões read-only por destino (primário ou réplica)")
+                .tag("target", (String) name)
+                .register(meterRegistry));
+        }
+        for (String name : replicas.keySet()) {
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("product.replicas.lag", lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                .description("Atraso de replicação medido (s); NaN se a réplica não responde")
+                .tag("replica", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        }
+    }
+
+    // Leituras desta thread vão ao primário enquanto "force" estiver ativo (ReadYourWritesFilter).
+    static void forcePrimary(boolean force) {
+        if (force) FORCE_PRIMARY.set(Boolean.TRUE);
+        else FORCE_PRIMARY.remove();
+    }
+
+    long readYourWritesMillis() {
+        return readYourWritesMillis;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = PRIMARY;
+        List<String> current = healthy;
+        if (!current.isEmpty() && FORCE_PRIMARY.get() == null && System.currentTimeMillis() >= primaryUntil.get()) {
+            target = current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+        }
+        routed.get(target).increment();
+        return target;
+    }
+
+    // Commit de escrita nesta instância: leituras no primário até as réplicas alcançarem.
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            long until = System.currentTimeMillis() + readYourWritesMillis;
+            primaryUntil.updateAndGet(current -> Math.max(until, current + 1));
+        }
+    }
+
+    // -----------------------
+    // ATRASO DAS RÉPLICAS
+    // -----------------------
+    @Scheduled(fixedDelayString = "${product.replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        // Lida antes da posição do WAL: um commit depois deste ponto muda a janela e o
+        // compareAndSet abaixo falha.
+        long window = primaryUntil.get();
+        String primaryLsn = primaryLsn();
+        boolean caughtUp = primaryLsn != null;
+        List<String> inSync = new ArrayList<>();
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            ReplicaState state = measure(name, replica.getValue(), primaryLsn);
+            lagSeconds.put(name, state.lagSeconds());
+            // NaN (falha, ou não é réplica) nunca passa na comparação.
+            boolean ok = state.streaming() && state.lagSeconds() * 1000 <= maxLagMillis;
+            if (ok) {
+                inSync.add(name);
+                caughtUp &= state.caughtUp();
+            }
+            if (ok != healthy.contains(name)) {
+                if (ok) log.info("Réplica {} em dia (atraso {} s): volta a receber leituras", name, state.lagSeconds());
+                else log.warn("Réplica {} fora do limite (atraso {} s, streaming {}): leituras vão para o primário",
+                    name, state.lagSeconds(), state.streaming());
+            }
+        }
+        healthy = List.copyOf(inSync);
+        if (caughtUp && !inSync.isEmpty()) primaryUntil.compareAndSet(window, 0L);
+    }
+
+    private String primaryLsn() {
+        try (Connection connection = primary.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery("SELECT CAST(pg_current_wal_lsn() AS text)")) {
+            result.next();
+            return result.getString(1);
+        } catch (SQLException ex) {
+            log.debug("Falha ao ler a posição do WAL do primário: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private ReplicaState measure(String name, HikariDataSource replica, String primaryLsn) {
+        try (Connection connection = replica.getConnection();
+            PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+            statement.setString(1, primaryLsn);
+            statement.setString(2, primaryLsn);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                double lag = result.getDouble(1);
+                if (result.wasNull()) return ReplicaState.UNKNOWN;
+                return new ReplicaState(lag, result.getBoolean(2), result.getBoolean(3));
+            }
+        } catch (SQLException ex) {
+            log.debug("Falha ao medir o atraso da réplica {}: {}", name, ex.getMessage());
+            return ReplicaState.UNKNOWN;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    private record ReplicaState(double lagSeconds, boolean caughtUp, boolean streaming) {
+        static final ReplicaState UNKNOWN = new ReplicaState(Double.NaN, false, false);
+    }
+}
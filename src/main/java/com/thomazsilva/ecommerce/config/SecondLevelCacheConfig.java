@@ -0,0 +1,61 @@
+package com.thomazsilva.ecommerce.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+// Cache de segundo nível do Hibernate (JCache/Caffeine). As regiões são criadas aqui, com
+// tamanho e TTL vindos do application.properties, e o CacheManager é entregue pronto ao
+// Hibernate (missing_cache_strategy=fail: região não declarada aqui derruba a inicialização).
+// Cada contexto Spring tem o seu CacheManager (URI próprio): o CacheManager padrão do provider é
+// único na JVM, e um segundo contexto (testes com configurações diferentes) falharia no
+// createCache de uma região que já existe.
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String PRODUCT_REGION = "product";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final AtomicInteger CONTEXTS = new AtomicInteger();
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+        @Value("${product.l2-cache.product.maximum-size:10000}") long productMaxSize,
+        @Value("${product.l2-cache.product.expire-after-write:PT10M}") Duration productTtl,
+        @Value("${product.l2-cache.queries.maximum-size:1000}") long queriesMaxSize,
+        @Value("${product.l2-cache.queries.expire-after-write:PT1M}") Duration queriesTtl
+    ) {
+        CacheManager cacheManager = Caching
+            .getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("hibernate-l2-cache-" + CONTEXTS.incrementAndGet()),
+                getClass().getClassLoader());
+        cacheManager.createCache(PRODUCT_REGION, region(productMaxSize, productTtl));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queriesMaxSize, queriesTtl));
+        // Timestamps das tabelas invalidam o cache de consultas: não podem expirar nem ser descartados.
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+            .setMaximumSize(OptionalLong.of(maximumSize))
+            .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+}
@@ -1,11 +1,15 @@
 package com.thomazsilva.ecommerce.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,41 +17,88 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.thomazsilva.ecommerce.dto.ImportReportDTO;
+import com.thomazsilva.ecommerce.dto.PageResponseDTO;
+import com.thomazsilva.ecommerce.dto.ProductFacetsDTO;
 import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
 import com.thomazsilva.ecommerce.dto.ProductResponseDTO;
-import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.dto.VersionedDTO;
+import com.thomazsilva.ecommerce.enums.CountMode;
+import com.thomazsilva.ecommerce.enums.ExportFormat;
+import com.thomazsilva.ecommerce.enums.ProductSortField;
+import com.thomazsilva.ecommerce.enums.ProductView;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+import com.thomazsilva.ecommerce.service.ProductExportService;
+import com.thomazsilva.ecommerce.service.ProductFacetService;
+import com.thomazsilva.ecommerce.service.ProductImportService;
 import com.thomazsilva.ecommerce.service.ProductService;
+import com.thomazsilva.ecommerce.service.ProductViewCounter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductViewCounter viewCounter;
+    private final ProductFacetService facetService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+        ProductExportService productExportService, ProductViewCounter viewCounter, ProductFacetService facetService) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.viewCounter = viewCounter;
+        this.facetService = facetService;
     }
 
     // ============================================================
     // GET: LISTAR COM PAGINAÇÃO + FILTROS
     // ============================================================
+    // view=SUMMARY devolve só id, nome, preço e imagem (sem a descrição).
     @GetMapping
-    public ResponseEntity<Page<ProductResponseDTO>> getFilteredAndPaginatedProducts(
+    public ResponseEntity<PageResponseDTO<? extends VersionedDTO>> getFilteredAndPaginatedProducts(
         @RequestParam(required = false) String name,
         @RequestParam(required = false) BigDecimal minPrice,
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String sort,
+        @RequestParam(required = false) CountMode count,
+        @RequestParam(defaultValue = "FULL") ProductView view
+    ) {
+        ProductFilter filter = new ProductFilter(name, minPrice, maxPrice);
+        Pageable pageable = PageRequest.of(page, size, ProductSortField.toSort(sort));
+        Page<? extends VersionedDTO> results = view == ProductView.SUMMARY
+            ? productService.filterSummariesPaginated(filter, pageable, count)
+            : productService.filterPaginated(filter, pageable, count).map(p -> p.toDTO());
+        // Com If-None-Match igual ao ETag, o Spring responde 304 sem serializar a página.
+        return ResponseEntity.ok()
+            .eTag(ProductETags.page(results, filter, sort, count, view))
+            .body(PageResponseDTO.of(results));
+    }
+
+    // ============================================================
+    // GET: LISTAR COM CURSOR (KEYSET) + FILTROS
+    // ============================================================
+    @GetMapping("/scroll")
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> getProductsAfterCursor(
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) String after,
         @RequestParam(defaultValue = "10") int size
     ) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponseDTO> results = productService.filterByNameAndPricePaginated(
-            name, minPrice, maxPrice, pageable).map(p -> p.toDTO());
-        return ResponseEntity.ok(results);
+        return ResponseEntity.ok(productService.filterAfter(new ProductFilter(name, minPrice, maxPrice), after, size));
     }
 
     // ============================================================
@@ -59,22 +110,66 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product.toDTO());
     }
 
+    // ============================================================
+    // GET: FACETAS DE PREÇO (contagem por faixa para o filtro de nome)
+    // ============================================================
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getFacets(@RequestParam(required = false) String name) {
+        return ResponseEntity.ok(facetService.facets(new ProductFilter(name, null, null)));
+    }
+
+    // ============================================================
+    // POST: IMPORTAÇÃO EM LOTE (array JSON ou NDJSON)
+    // ============================================================
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<ImportReportDTO> importProducts(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(body));
+    }
+
+    // ============================================================
+    // GET: EXPORTAÇÃO DO CATÁLOGO (NDJSON ou CSV, em streaming)
+    // ============================================================
+    @GetMapping("/export")
+    public void exportProducts(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletResponse response) throws IOException {
+        response.setContentType(format == ExportFormat.CSV ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+        productExportService.export(format, response.getOutputStream());
+    }
+
     // ============================================================
     // GET: BUSCAR POR ID
     // ============================================================
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id).toDTO());
+    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id, WebRequest request) {
+        // O DTO vem do cache "products" (Caffeine): a revalidação compara a versão dele, sem ida
+        // ao banco e sem serializar o produto. 304 também conta como visualização (o produto foi
+        // exibido a partir do cache do cliente).
+        ProductResponseDTO product = productService.findDTOById(id);
+        viewCounter.record(id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            && request.checkNotModified(ProductETags.product(product.version()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(ProductETags.product(product.version()))
+            .lastModified(product.updatedAt())
+            .body(product);
     }
 
     // ============================================================
     // PUT: ATUALIZAR PRODUTO
     // ============================================================
+    // If-Match: "<versão>" (o ETag do GET) torna a escrita condicional; 412 se o produto
+    // mudou desde a leitura. Sem o cabeçalho, ou com "*", a atualização é incondicional.
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(@PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody ProductRequestDTO dto) {
-            var updated = productService.updateProduct(id, dto);
-            return ResponseEntity.ok(updated.toDTO());
+            ProductResponseDTO updated = productService.updateProduct(id, ProductETags.expectedVersion(id, ifMatch), dto);
+            return ResponseEntity.ok()
+                .eTag(ProductETags.product(updated.version()))
+                .lastModified(updated.updatedAt())
+                .body(updated);
     }
 
     // ============================================================
@@ -90,26 +185,34 @@ public class ProductController {
     // GET: BUSCAR POR COM FILTROS
     // ============================================================
     @GetMapping("/search")
-    public ResponseEntity<Page<Product>> searchProducts(
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> searchProducts(
+        @RequestParam(required = false) String q,
         @RequestParam(required = false) String name,
         @RequestParam(required = false) BigDecimal minPrice,
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String sort
     ) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> filtered = productService.filterByNameAndPricePaginated(name, minPrice, maxPrice, pageable);
-        return ResponseEntity.ok(filtered);
+        ProductFilter filter = new ProductFilter(name, minPrice, maxPrice);
+        if (q != null && !q.isBlank()) {
+            // Busca textual: ordem por relevância, "name" e "sort" não se aplicam
+            return ResponseEntity.ok(PageResponseDTO.of(
+                productService.search(q, filter, PageRequest.of(page, size)).map(p -> p.toDTO())));
+        }
+        Pageable pageable = PageRequest.of(page, size, ProductSortField.toSort(sort));
+        Page<ProductResponseDTO> filtered = productService.filterPaginated(filter, pageable, null).map(p -> p.toDTO());
+        return ResponseEntity.ok(PageResponseDTO.of(filtered));
     }
 
     // ============================================================
     // GET: PAGINAÇÃO
     // ============================================================
     @GetMapping("/paginated")
-    public ResponseEntity<Page<Product>> searchProductsPaginated(
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> searchProductsPaginated(
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size) {
-            Page<Product> paginated = productService.getAllProductsPaginated(page, size);
-            return ResponseEntity.ok(paginated);    
+            Page<ProductResponseDTO> paginated = productService.getAllProductsPaginated(page, size).map(p -> p.toDTO());
+            return ResponseEntity.ok(PageResponseDTO.of(paginated));
     }
 }
@@ -0,0 +1,46 @@
+package com.thomazsilva.ecommerce.controller;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import com.thomazsilva.ecommerce.dto.VersionedDTO;
+import com.thomazsilva.ecommerce.exception.PreconditionFailedException;
+
+final class ProductETags {
+
+    private ProductETags() {}
+
+    // ETag forte de um produto: muda a cada UPDATE, pois vem do @Version.
+    static String product(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Versão esperada a partir do If-Match: ausente ou "*" = sem condição (null).
+    // If-Match usa comparação forte, então ETag fraco, lista ou valor malformado nunca
+    // casa com a versão atual e a resposta é 412.
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // cai no 412 abaixo
+            }
+        }
+        throw new PreconditionFailedException(id);
+    }
+
+    // ETag fraco de uma página: parâmetros da consulta + total + (id, versão) de cada item.
+    static String page(Page<? extends VersionedDTO> page, Object... params) {
+        StringBuilder key = new StringBuilder();
+        for (Object param : params) key.append(param).append('|');
+        key.append(page.getNumber()).append('|').append(page.getSize()).append('|').append(page.getTotalElements());
+        for (VersionedDTO item : page.getContent()) {
+            key.append('|').append(item.id()).append(':').append(item.version());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
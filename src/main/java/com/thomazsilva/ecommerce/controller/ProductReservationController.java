@@ -0,0 +1,50 @@
+package com.thomazsilva.ecommerce.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thomazsilva.ecommerce.dto.ReservationDTO;
+import com.thomazsilva.ecommerce.service.ProductReservationService;
+
+@RestController
+@RequestMapping("/products/{id}/reservations")
+public class ProductReservationController {
+    private final ProductReservationService reservationService;
+
+    public ProductReservationController(ProductReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    // ============================================================
+    // POST: RESERVAR (uma vencedora por peça; as demais recebem 409)
+    // ============================================================
+    @PostMapping
+    public ResponseEntity<ReservationDTO> reserve(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.reserve(id));
+    }
+
+    // ============================================================
+    // POST: CONFIRMAR (peça vendida)
+    // ============================================================
+    @PostMapping("/{token}/confirm")
+    public ResponseEntity<Void> confirm(@PathVariable Long id, @PathVariable UUID token) {
+        reservationService.confirm(id, token);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ============================================================
+    // DELETE: LIBERAR A RESERVA
+    // ============================================================
+    @DeleteMapping("/{token}")
+    public ResponseEntity<Void> release(@PathVariable Long id, @PathVariable UUID token) {
+        reservationService.release(id, token);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.util.List;
+
+public record ImportReportDTO(
+    long received,
+    long imported,
+    long failed,
+    List<ImportRowErrorDTO> errors
+) {}
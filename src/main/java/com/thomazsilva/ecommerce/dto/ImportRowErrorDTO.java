@@ -0,0 +1,10 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.util.List;
+
+import com.thomazsilva.ecommerce.exception.FieldErrorResponse;
+
+public record ImportRowErrorDTO(
+    long row,
+    List<FieldErrorResponse> errors
+) {}
@@ -0,0 +1,30 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Envelope único das listagens, no lugar do PageImpl serializado por reflexão (que repete
+// "pageable" e "sort" em toda resposta e cujo formato não é garantido pelo Spring Data).
+// - Paginação por offset: page, size, totalElements, totalPages.
+// - Paginação por cursor: size e nextCursor (ausente na última página).
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageResponseDTO<T>(
+    List<T> content,
+    Integer page,
+    int size,
+    Long totalElements,
+    Integer totalPages,
+    String nextCursor
+) {
+    public static <T> PageResponseDTO<T> of(Page<T> page) {
+        return new PageResponseDTO<>(page.getContent(), page.getNumber(), page.getSize(),
+            page.getTotalElements(), page.getTotalPages(), null);
+    }
+
+    public static <T> PageResponseDTO<T> cursor(List<T> content, int size, String nextCursor) {
+        return new PageResponseDTO<>(content, null, size, null, null, nextCursor);
+    }
+}
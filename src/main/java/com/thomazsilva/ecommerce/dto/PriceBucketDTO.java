@@ -0,0 +1,10 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+// Faixa [from, to) de preço; to nulo = última faixa, sem limite superior.
+public record PriceBucketDTO(
+    BigDecimal from,
+    BigDecimal to,
+    long count
+) {}
@@ -0,0 +1,9 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.util.List;
+
+// Contagens da barra lateral da vitrine para o filtro atual.
+public record ProductFacetsDTO(
+    long total,
+    List<PriceBucketDTO> price
+) {}
@@ -1,11 +1,30 @@
 package com.thomazsilva.ecommerce.dto;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thomazsilva.ecommerce.enums.Availability;
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+
+// thumbnailUrl/dominantColor ficam nulos até o processamento da imagem terminar (imageStatus READY).
+// reservedUntil só é preenchido com availability RESERVED.
+@JsonSerialize(using = ProductResponseDTOSerializer.class)
 public record ProductResponseDTO(
     Long id,
     String name,
     BigDecimal price,
     String description,
-    String imageUrl
-) {}
+    String imageUrl,
+    Long version,
+    Instant updatedAt,
+    ImageStatus imageStatus,
+    Integer imageWidth,
+    Integer imageHeight,
+    String thumbnailUrl,
+    Integer thumbnailWidth,
+    Integer thumbnailHeight,
+    String dominantColor,
+    Availability availability,
+    Instant reservedUntil
+) implements VersionedDTO {}
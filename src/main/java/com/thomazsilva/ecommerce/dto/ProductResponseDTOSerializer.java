@@ -0,0 +1,83 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+// Serialização direta de ProductResponseDTO (é o que mais se serializa: listagens, detalhe e
+// exportação): campos na ordem do record com nomes já codificados (SerializedString), sem
+// introspecção nem lookup de serializer por propriedade, e preço como número plano
+// (toPlainString: nunca "1E+3").
+public class ProductResponseDTOSerializer extends JsonSerializer<ProductResponseDTO> {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString IMAGE_URL = new SerializedString("imageUrl");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString IMAGE_STATUS = new SerializedString("imageStatus");
+    private static final SerializableString IMAGE_WIDTH = new SerializedString("imageWidth");
+    private static final SerializableString IMAGE_HEIGHT = new SerializedString("imageHeight");
+    private static final SerializableString THUMBNAIL_URL = new SerializedString("thumbnailUrl");
+    private static final SerializableString THUMBNAIL_WIDTH = new SerializedString("thumbnailWidth");
+    private static final SerializableString THUMBNAIL_HEIGHT = new SerializedString("thumbnailHeight");
+    private static final SerializableString DOMINANT_COLOR = new SerializedString("dominantColor");
+    private static final SerializableString AVAILABILITY = new SerializedString("availability");
+    private static final SerializableString RESERVED_UNTIL = new SerializedString("reservedUntil");
+
+    @Override
+    public void serialize(ProductResponseDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(dto);
+        writeLong(gen, ID, dto.id());
+        writeString(gen, NAME, dto.name());
+        gen.writeFieldName(PRICE);
+        if (dto.price() == null) gen.writeNull();
+        else gen.writeNumber(plain(dto.price()));
+        writeString(gen, DESCRIPTION, dto.description());
+        writeString(gen, IMAGE_URL, dto.imageUrl());
+        writeLong(gen, VERSION, dto.version());
+        writeString(gen, UPDATED_AT, dto.updatedAt() != null ? dto.updatedAt().toString() : null);
+        writeString(gen, IMAGE_STATUS, dto.imageStatus() != null ? dto.imageStatus().name() : null);
+        writeInt(gen, IMAGE_WIDTH, dto.imageWidth());
+        writeInt(gen, IMAGE_HEIGHT, dto.imageHeight());
+        writeString(gen, THUMBNAIL_URL, dto.thumbnailUrl());
+        writeInt(gen, THUMBNAIL_WIDTH, dto.thumbnailWidth());
+        writeInt(gen, THUMBNAIL_HEIGHT, dto.thumbnailHeight());
+        writeString(gen, DOMINANT_COLOR, dto.dominantColor());
+        writeString(gen, AVAILABILITY, dto.availability() != null ? dto.availability().name() : null);
+        writeString(gen, RESERVED_UNTIL, dto.reservedUntil() != null ? dto.reservedUntil().toString() : null);
+        gen.writeEndObject();
+    }
+
+    // toString() do BigDecimal fica em cache no próprio objeto e só usa notação científica com
+    // escala negativa ou valores muito pequenos; nos demais casos é igual ao toPlainString(),
+    // que aloca uma String nova a cada chamada.
+    private static String plain(BigDecimal value) {
+        boolean scientific = value.scale() < 0 || value.precision() - value.scale() - 1 < -6;
+        return scientific ? value.toPlainString() : value.toString();
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString field, String value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) gen.writeNull();
+        else gen.writeString(value);
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializableString field, Long value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) gen.writeNull();
+        else gen.writeNumber(value.longValue());
+    }
+
+    private static void writeInt(JsonGenerator gen, SerializableString field, Integer value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) gen.writeNull();
+        else gen.writeNumber(value.intValue());
+    }
+}
@@ -0,0 +1,20 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+import com.thomazsilva.ecommerce.enums.Availability;
+
+// Representação enxuta para grades de listagem: não inclui a descrição (coluna TEXT) e leva
+// a miniatura (com dimensões e cor de placeholder) para a grade não baixar a imagem original.
+public record ProductSummaryDTO(
+    Long id,
+    String name,
+    BigDecimal price,
+    String imageUrl,
+    String thumbnailUrl,
+    Integer thumbnailWidth,
+    Integer thumbnailHeight,
+    String dominantColor,
+    Availability availability,
+    Long version
+) implements VersionedDTO {}
@@ -0,0 +1,11 @@
+package com.thomazsilva.ecommerce.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Reserva concedida: o token é a prova para confirmar ou liberar antes de reservedUntil.
+public record ReservationDTO(
+    Long productId,
+    UUID token,
+    Instant reservedUntil
+) {}
@@ -0,0 +1,8 @@
+package com.thomazsilva.ecommerce.dto;
+
+// DTOs de listagem que carregam (id, versão): usados para montar o ETag da página.
+public interface VersionedDTO {
+    Long id();
+
+    Long version();
+}
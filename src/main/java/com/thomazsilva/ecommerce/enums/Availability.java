@@ -0,0 +1,8 @@
+package com.thomazsilva.ecommerce.enums;
+
+// Disponibilidade de uma peça (quase tudo no brechó é peça única).
+public enum Availability {
+    AVAILABLE,
+    RESERVED,
+    SOLD
+}
@@ -0,0 +1,6 @@
+package com.thomazsilva.ecommerce.enums;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATED
+}
@@ -1,10 +1,26 @@
 package com.thomazsilva.ecommerce.enums;
 
+import java.math.BigDecimal;
+
 public enum FilterType {
     NAME_MIN_MAX,
     NAME_MIN,
     NAME_MAX,
     MIN_MAX,
     NAME_ONLY,
-    NONE
+    NONE;
+
+    public static FilterType detect(String name, BigDecimal minPrice, BigDecimal maxPrice) {
+        boolean hasName = name != null && !name.isBlank();
+        boolean hasMin = minPrice != null;
+        boolean hasMax = maxPrice != null;
+
+        if (hasName && hasMin && hasMax) return NAME_MIN_MAX;
+        if (hasName && hasMin) return NAME_MIN;
+        if (hasName && hasMax) return NAME_MAX;
+        if (hasName) return NAME_ONLY;
+        if (hasMin || hasMax) return MIN_MAX;
+
+        return NONE;
+    }
 }
@@ -0,0 +1,9 @@
+package com.thomazsilva.ecommerce.enums;
+
+// Estado do processamento da imagem do produto (miniatura + cor predominante).
+public enum ImageStatus {
+    NONE,
+    PENDING,
+    READY,
+    FAILED
+}
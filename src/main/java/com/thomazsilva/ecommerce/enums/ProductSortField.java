@@ -0,0 +1,57 @@
+package com.thomazsilva.ecommerce.enums;
+
+import java.util.Locale;
+
+import org.springframework.data.domain.Sort;
+
+import com.thomazsilva.ecommerce.exception.InvalidSortException;
+
+// Campos aceitos em "sort=campo[,asc|desc]". Qualquer outro valor é recusado com 400,
+// para não expor colunas arbitrárias. Sem direção, POPULAR vem do mais para o menos visto.
+public enum ProductSortField {
+    ID("id", Sort.Direction.ASC),
+    NAME("name", Sort.Direction.ASC),
+    PRICE("price", Sort.Direction.ASC),
+    POPULAR("viewCount", Sort.Direction.DESC);
+
+    private final String property;
+    private final Sort.Direction defaultDirection;
+
+    ProductSortField(String property, Sort.Direction defaultDirection) {
+        this.property = property;
+        this.defaultDirection = defaultDirection;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean appliesTo(Sort sort) {
+        return sort.getOrderFor(property) != null;
+    }
+
+    public static Sort toSort(String expression) {
+        if (expression == null || expression.isBlank()) return Sort.unsorted();
+
+        String[] parts = expression.split(",");
+        if (parts.length > 2) throw new InvalidSortException(expression);
+
+        ProductSortField field;
+        try {
+            field = valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidSortException(expression);
+        }
+
+        Sort.Direction direction = field.defaultDirection;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                .orElseThrow(() -> new InvalidSortException(expression));
+        }
+        // Desempate por id na mesma direção: a ordem fica determinística entre páginas e
+        // "price, id" (asc ou desc) é atendido pelo índice idx_product_price_id e
+        // "viewCount, id" desc pelo idx_product_view_count.
+        Sort sort = Sort.by(direction, field.property());
+        return field == ID ? sort : sort.and(Sort.by(direction, ID.property()));
+    }
+}
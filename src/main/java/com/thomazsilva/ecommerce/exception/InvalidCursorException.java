@@ -0,0 +1,7 @@
+package com.thomazsilva.ecommerce.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Cursor de paginação inválido: " + cursor);
+    }
+}
@@ -0,0 +1,7 @@
+package com.thomazsilva.ecommerce.exception;
+
+public class InvalidSortException extends RuntimeException {
+    public InvalidSortException(String sort) {
+        super("Ordenação inválida: " + sort + ". Use id, name ou price, com asc ou desc.");
+    }
+}
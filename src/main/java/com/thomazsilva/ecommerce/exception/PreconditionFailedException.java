@@ -0,0 +1,7 @@
+package com.thomazsilva.ecommerce.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(Long id) {
+        super("O produto " + id + " foi alterado desde a última leitura (If-Match não confere)");
+    }
+}
@@ -0,0 +1,15 @@
+package com.thomazsilva.ecommerce.exception;
+
+public class ReservationConflictException extends RuntimeException {
+    private ReservationConflictException(String message) {
+        super(message);
+    }
+
+    public static ReservationConflictException unavailable(Long id) {
+        return new ReservationConflictException("O produto " + id + " não está disponível para reserva");
+    }
+
+    public static ReservationConflictException invalidToken(Long id) {
+        return new ReservationConflictException("Reserva inválida ou expirada para o produto " + id);
+    }
+}
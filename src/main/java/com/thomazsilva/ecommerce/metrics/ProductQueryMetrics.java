@@ -0,0 +1,65 @@
+package com.thomazsilva.ecommerce.metrics;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.thomazsilva.ecommerce.enums.CountMode;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Timer "product.filter" por FilterType (ou FULL_TEXT/FACETS)/CountMode e log das consultas de listagem que
+// passam de "product.metrics.slow-query-threshold", com os filtros usados.
+@Component
+public class ProductQueryMetrics {
+    private static final Logger log = LoggerFactory.getLogger(ProductQueryMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    public ProductQueryMetrics(MeterRegistry meterRegistry,
+        @Value("${product.metrics.slow-query-threshold:200ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    public <T> T recordFilter(ProductFilter filter, CountMode countMode, Supplier<T> query) {
+        return record(filter.type().name(), countMode, filter, query);
+    }
+
+    // Busca textual entra no mesmo timer, com type=FULL_TEXT (o count é sempre exato).
+    public <T> T recordSearch(String text, ProductFilter filter, Supplier<T> query) {
+        return record("FULL_TEXT", CountMode.EXACT, "q=" + text + " " + filter, query);
+    }
+
+    // Histograma de facetas, type=FACETS.
+    public <T> T recordFacets(ProductFilter filter, Supplier<T> query) {
+        return record("FACETS", CountMode.EXACT, filter, query);
+    }
+
+    private <T> T record(String type, CountMode countMode, Object details, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("product.filter")
+                .description("Tempo das consultas de listagem por tipo de filtro")
+                .tag("type", type)
+                .tag("count", countMode.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+            if (elapsed >= slowThresholdNanos) {
+                log.warn("Consulta lenta ({} ms): type={} count={} filter={}",
+                    elapsed / 1_000_000, type, countMode, details);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.thomazsilva.ecommerce.metrics;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Publica "product.request.queries": quantos statements SQL cada endpoint de /products executou.
+// Um valor alto e crescente com o tamanho da página costuma indicar N+1.
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("product.request.queries")
+                .description("Statements SQL executados por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(QueryCountInspector.current());
+            QueryCountInspector.clear();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.thomazsilva.ecommerce.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Conta os statements SQL preparados pelo Hibernate na thread atual.
+// O QueryCountFilter zera o contador no início da requisição e publica o total no fim.
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
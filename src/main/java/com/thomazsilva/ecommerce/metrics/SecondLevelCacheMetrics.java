@@ -0,0 +1,48 @@
+package com.thomazsilva.ecommerce.metrics;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.thomazsilva.ecommerce.config.SecondLevelCacheConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+// Taxa de acerto por região do cache de segundo nível ("product.l2cache.hit.ratio").
+// Contadores brutos de hit/miss/put já saem em hibernate.second.level.cache.requests e
+// hibernate.cache.query.requests (hibernate-micrometer).
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private static final List<String> REGIONS = List.of(
+        SecondLevelCacheConfig.PRODUCT_REGION, SecondLevelCacheConfig.QUERY_RESULTS_REGION);
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            Gauge.builder("product.l2cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                .description("Acertos / consultas na região do cache de segundo nível")
+                .tag("region", region)
+                .register(registry);
+        }
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) return Double.NaN;
+        long hits = regionStatistics.getHitCount();
+        long total = hits + regionStatistics.getMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
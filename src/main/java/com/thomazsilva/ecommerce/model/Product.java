@@ -3,14 +3,54 @@ package com.thomazsilva.ecommerce.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.thomazsilva.ecommerce.config.SecondLevelCacheConfig;
 import com.thomazsilva.ecommerce.dto.ProductResponseDTO;
+import com.thomazsilva.ecommerce.dto.ProductSummaryDTO;
+import com.thomazsilva.ecommerce.enums.Availability;
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+import com.thomazsilva.ecommerce.repository.ProductUpdate;
 
+// Entidade no cache de segundo nível (região "product"): findById e as entidades das
+// consultas cacheadas saem da memória. READ_WRITE: save/delete pelo Hibernate atualizam ou
+// removem a entrada no commit; UPDATE/DELETE em SQL nativo precisam evictar à mão.
 @Entity
 @Table(name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PRODUCT_REGION)
+@SqlResultSetMapping(name = Product.UPDATE_MAPPING, classes = @ConstructorResult(targetClass = ProductUpdate.class, columns = {
+    @ColumnResult(name = "id", type = Long.class),
+    @ColumnResult(name = "name", type = String.class),
+    @ColumnResult(name = "price", type = BigDecimal.class),
+    @ColumnResult(name = "description", type = String.class),
+    @ColumnResult(name = "image_url", type = String.class),
+    @ColumnResult(name = "version", type = Long.class),
+    @ColumnResult(name = "updated_at", type = Instant.class),
+    @ColumnResult(name = "image_status", type = String.class),
+    @ColumnResult(name = "image_width", type = Integer.class),
+    @ColumnResult(name = "image_height", type = Integer.class),
+    @ColumnResult(name = "thumbnail_url", type = String.class),
+    @ColumnResult(name = "thumbnail_width", type = Integer.class),
+    @ColumnResult(name = "thumbnail_height", type = Integer.class),
+    @ColumnResult(name = "dominant_color", type = String.class),
+    @ColumnResult(name = "availability", type = String.class),
+    @ColumnResult(name = "reserved_until", type = Instant.class),
+    @ColumnResult(name = "previous_price", type = BigDecimal.class)
+}))
 public class Product {
+    public static final String UPDATE_MAPPING = "ProductUpdate";
+
+    // Sequência com alocação em bloco (pooled): IDENTITY impede o batching de INSERTs do Hibernate.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +65,51 @@ public class Product {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // Versão e data da última alteração: base dos ETags/Last-Modified de GET /products/{id}.
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // Derivados da imagem, gerados fora da requisição pelo ProductImageService.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", nullable = false, length = 16)
+    private ImageStatus imageStatus = ImageStatus.NONE;
+
+    @Column(name = "image_width")
+    private Integer imageWidth;
+
+    @Column(name = "image_height")
+    private Integer imageHeight;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "thumbnail_width")
+    private Integer thumbnailWidth;
+
+    @Column(name = "thumbnail_height")
+    private Integer thumbnailHeight;
+
+    @Column(name = "dominant_color", length = 7)
+    private String dominantColor;
+
+    // Estado da reserva: escrito só pelos UPDATEs condicionais de ProductReservationService,
+    // nunca pelo flush da entidade (uma edição do produto não desfaz uma reserva concorrente).
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'AVAILABLE'")
+    @Column(name = "availability", nullable = false, length = 16, insertable = false, updatable = false)
+    private Availability availability = Availability.AVAILABLE;
+
+    @Column(name = "reserved_until", insertable = false, updatable = false)
+    private Instant reservedUntil;
+
+    // Acumulado pelo ProductViewCounter, fora do @Version e do cache: só serve para ordenar.
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
 
     public Product() {}
 
@@ -68,8 +153,78 @@ public class Product {
         return imageUrl;
     }
 
+    // Trocar a URL descarta os derivados da imagem anterior e coloca o produto na fila
+    // de processamento (ou em NONE, se a imagem foi removida). A mesma regra está no UPDATE
+    // nativo de ProductRepositoryImpl.updateIfVersion.
     public void setImageUrl(String imageUrl) {
+        if (Objects.equals(this.imageUrl, imageUrl)) return;
         this.imageUrl = imageUrl;
+        this.imageStatus = imageUrl == null || imageUrl.isBlank() ? ImageStatus.NONE : ImageStatus.PENDING;
+        this.imageWidth = null;
+        this.imageHeight = null;
+        this.thumbnailUrl = null;
+        this.thumbnailWidth = null;
+        this.thumbnailHeight = null;
+        this.dominantColor = null;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+
+    public Integer getImageWidth() {
+        return imageWidth;
+    }
+
+    public Integer getImageHeight() {
+        return imageHeight;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public Integer getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    public Integer getThumbnailHeight() {
+        return thumbnailHeight;
+    }
+
+    public String getDominantColor() {
+        return dominantColor;
+    }
+
+    public Availability getAvailability() {
+        return availability;
+    }
+
+    public Instant getReservedUntil() {
+        return reservedUntil;
+    }
+
+    public void imageProcessed(int width, int height, String thumbnailUrl, int thumbnailWidth,
+        int thumbnailHeight, String dominantColor) {
+        this.imageStatus = ImageStatus.READY;
+        this.imageWidth = width;
+        this.imageHeight = height;
+        this.thumbnailUrl = thumbnailUrl;
+        this.thumbnailWidth = thumbnailWidth;
+        this.thumbnailHeight = thumbnailHeight;
+        this.dominantColor = dominantColor;
+    }
+
+    public void imageFailed() {
+        this.imageStatus = ImageStatus.FAILED;
     }
 
     public ProductResponseDTO toDTO() {
@@ -78,7 +233,33 @@ public class Product {
             this.name,
             this.price,
             this.description,
-            this.imageUrl
+            this.imageUrl,
+            this.version,
+            this.updatedAt,
+            this.imageStatus,
+            this.imageWidth,
+            this.imageHeight,
+            this.thumbnailUrl,
+            this.thumbnailWidth,
+            this.thumbnailHeight,
+            this.dominantColor,
+            this.availability,
+            this.reservedUntil
+        );
+    }
+
+    public ProductSummaryDTO toSummaryDTO() {
+        return new ProductSummaryDTO(
+            this.id,
+            this.name,
+            this.price,
+            this.imageUrl,
+            this.thumbnailUrl,
+            this.thumbnailWidth,
+            this.thumbnailHeight,
+            this.dominantColor,
+            this.availability,
+            this.version
         );
     }
 }
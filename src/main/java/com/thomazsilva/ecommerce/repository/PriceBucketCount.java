@@ -0,0 +1,7 @@
+package com.thomazsilva.ecommerce.repository;
+
+public interface PriceBucketCount {
+    int getBucket();
+
+    long getTotal();
+}
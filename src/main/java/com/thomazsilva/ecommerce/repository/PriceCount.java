@@ -0,0 +1,9 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+
+public interface PriceCount {
+    BigDecimal getPrice();
+
+    long getTotal();
+}
@@ -0,0 +1,11 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.time.Instant;
+
+import com.thomazsilva.ecommerce.enums.Availability;
+
+public interface ProductAvailability {
+    Availability getAvailability();
+
+    Instant getReservedUntil();
+}
@@ -0,0 +1,35 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import com.thomazsilva.ecommerce.enums.FilterType;
+
+// Critérios de busca de produtos. Cada campo nulo/vazio simplesmente não entra no WHERE
+// (ver ProductSpecifications.matching); um filtro novo é um campo novo aqui + um predicado lá.
+public record ProductFilter(
+    String name,
+    BigDecimal minPrice,
+    BigDecimal maxPrice
+) {
+    public static final ProductFilter NONE = new ProductFilter(null, null, null);
+
+    public boolean hasName() {
+        return name != null && !name.isBlank();
+    }
+
+    public FilterType type() {
+        return FilterType.detect(name, minPrice, maxPrice);
+    }
+
+    // Padrão "%termo%" em minúsculas para lower(name) LIKE, escapando os curingas
+    // digitados pelo usuário (mesmo comportamento do ContainingIgnoreCase).
+    public String namePattern() {
+        if (!hasName()) return null;
+        String escaped = name.toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
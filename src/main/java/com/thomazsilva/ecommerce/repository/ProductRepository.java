@@ -3,39 +3,113 @@ package com.thomazsilva.ecommerce.repository;
 import com.thomazsilva.ecommerce.model.Product;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.math.BigDecimal;
-
-
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByNameContainingIgnoreCase(String name);
-
-    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
-
-    List<Product> findByPriceLessThanEqual(BigDecimal maxPrice);
-
-    List<Product> findByPriceGreaterThanEqual(BigDecimal minPrice);
-
-    List<Product> findByNameContainingIgnoreCaseAndPriceBetween(String name, BigDecimal minPrice, BigDecimal maxPrice);
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-    List<Product> findByNameContainingIgnoreCaseAndPriceGreaterThanEqual(String name, BigDecimal minPrice);
+import jakarta.persistence.QueryHint;
 
-    List<Product> findByNameContainingIgnoreCaseAndPriceLessThanEqual(String name, BigDecimal maxPrice);
-
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
-
-    Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
-
-    Page<Product> findByPriceGreaterThanEqual(BigDecimal minPrice, Pageable pageable);
-
-    Page<Product> findByPriceLessThanEqual(BigDecimal maxPrice, Pageable pageable);
-
-    Page<Product> findByNameContainingIgnoreCaseAndPriceBetween(String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+import java.math.BigDecimal;
 
-    Page<Product> findByNameContainingIgnoreCaseAndPriceGreaterThanEqual(String name, BigDecimal minPrice, Pageable pageable);
 
-    Page<Product> findByNameContainingIgnoreCaseAndPriceLessThanEqual(String name, BigDecimal maxPrice, Pageable pageable);
+// Filtros de listagem: Specifications montadas a partir de ProductFilter (ver ProductSpecifications),
+// em vez de um método derivado para cada combinação de filtros.
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+    ProductRepositoryCustom {
+
+    // Consultas Criteria não entram no cache de planos do Hibernate por padrão; como cada
+    // combinação de filtros tem sempre a mesma forma, vale a pena cacheá-las.
+    // HINT_CACHEABLE: o resultado (ids/contagem) vai para o cache de consultas, invalidado
+    // pelo Hibernate a cada escrita na tabela product.
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_QUERY_PLAN_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_QUERY_PLAN_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    List<Product> findAll(Specification<Product> spec, Sort sort);
+
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_QUERY_PLAN_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    long count(Specification<Product> spec);
+
+    @Query("select p.price as price, count(p) as total from Product p group by p.price")
+    List<PriceCount> countByPrice();
+
+    // Contagem aproximada para filtros por nome: para de contar ao atingir :cap linhas.
+    @Query(value = "SELECT count(*) FROM (SELECT 1 FROM product WHERE lower(name) LIKE :pattern ESCAPE '\\' "
+        + "AND price BETWEEN :minPrice AND :maxPrice LIMIT :cap) capped", nativeQuery = true)
+    long countByNameCapped(@Param("pattern") String pattern, @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice, @Param("cap") long cap);
+
+    // Histograma de preços num único GROUP BY: width_bucket devolve 1..n para os limites
+    // inferiores em :bounds (0 = abaixo do primeiro). O padrão é sempre informado ("%" para o
+    // catálogo inteiro), para o plano genérico não cair num "OR :pattern IS NULL".
+    @Query(value = "SELECT width_bucket(price, CAST(:bounds AS numeric[])) AS bucket, count(*) AS total "
+        + "FROM product WHERE lower(name) LIKE :pattern ESCAPE '\\' GROUP BY 1", nativeQuery = true)
+    List<PriceBucketCount> countByPriceBucket(@Param("bounds") BigDecimal[] bounds, @Param("pattern") String pattern);
+
+    // Busca textual (coluna search_vector, configuração pt_unaccent): websearch_to_tsquery aceita
+    // o texto do usuário como veio ("jaqueta jeans -couro", "\"saia longa\"") e a ordem é por
+    // relevância, com desempate por id para a paginação ser estável. Só a página: o total vem
+    // de countSearchCapped.
+    @Query(value = "SELECT p.* FROM product p, websearch_to_tsquery('pt_unaccent', :query) q "
+        + "WHERE p.search_vector @@ q AND p.price BETWEEN :minPrice AND :maxPrice "
+        + "ORDER BY ts_rank(p.search_vector, q) DESC, p.id",
+        nativeQuery = true)
+    List<Product> searchRanked(@Param("query") String query, @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    // Total da busca textual, como countByNameCapped: para de contar ao atingir :cap linhas.
+    @Query(value = "SELECT count(*) FROM (SELECT 1 FROM product p "
+        + "WHERE p.search_vector @@ websearch_to_tsquery('pt_unaccent', :query) "
+        + "AND p.price BETWEEN :minPrice AND :maxPrice LIMIT :cap) capped", nativeQuery = true)
+    long countSearchCapped(@Param("query") String query, @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice, @Param("cap") long cap);
+
+    // Cursor somente-leitura para a exportação: o driver busca 500 linhas por vez
+    // (exige transação aberta) e as entidades não guardam snapshot para dirty checking.
+    // CacheMode IGNORE: varrer o catálogo inteiro não pode expulsar do cache de segundo nível
+    // os produtos mais acessados.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllBy();
+
+    // Produtos com imagem ainda não processada (índice parcial idx_product_image_pending).
+    @Query("select p.id from Product p where p.imageStatus = com.thomazsilva.ecommerce.enums.ImageStatus.PENDING "
+        + "order by p.id")
+    List<Long> findPendingImageIds(Pageable pageable);
+
+    // Estado de reserva lido do banco (sem cache): quem perdeu a disputa descobre até quando
+    // a peça fica fechada.
+    @Query("select p.availability as availability, p.reservedUntil as reservedUntil from Product p where p.id = :id")
+    Optional<ProductAvailability> findAvailabilityById(@Param("id") Long id);
+
+    // Mais vistos (índice idx_product_view_count), para carregar o ranking do ProductViewCounter.
+    @Query("select p.id as id, p.viewCount as viewCount from Product p where p.viewCount > 0 "
+        + "order by p.viewCount desc, p.id desc")
+    List<ProductViews> findMostViewed(Pageable pageable);
 }
@@ -0,0 +1,52 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
+import com.thomazsilva.ecommerce.dto.ProductSummaryDTO;
+import com.thomazsilva.ecommerce.model.Product;
+
+public interface ProductRepositoryCustom {
+    // Página de resumos via constructor expression: só id, name, price, image_url e version
+    // saem do banco, e o resultado não é gerenciado pelo contexto de persistência.
+    List<ProductSummaryDTO> findSummaries(Specification<Product> spec, Pageable pageable);
+
+    // Um único UPDATE ... WHERE id = ? [AND version = ?] RETURNING, sem SELECT antes.
+    // expectedVersion nulo = atualização incondicional. Vazio: id inexistente ou versão diferente.
+    Optional<ProductUpdate> updateIfVersion(Long id, Long expectedVersion, ProductRequestDTO values);
+
+    // DELETE ... RETURNING price: vazio quando o id não existe.
+    Optional<BigDecimal> deleteReturningPrice(Long id);
+
+    // Reserva de peça única: um UPDATE condicional (disponível, ou reserva vencida) decide o
+    // vencedor no banco, sem lock mantido entre requisições. Devolve o fim da reserva; vazio
+    // para quem perdeu a disputa.
+    Optional<Instant> tryReserve(Long id, UUID token, Duration ttl);
+
+    // RESERVED -> SOLD, só com o token da reserva e antes de ela vencer.
+    boolean confirmReservation(Long id, UUID token);
+
+    // RESERVED -> AVAILABLE, só com o token da reserva.
+    boolean releaseReservation(Long id, UUID token);
+
+    // Devolve a AVAILABLE até "limit" reservas vencidas (FOR UPDATE SKIP LOCKED: não espera
+    // por linhas que uma reserva concorrente está disputando). Devolve os ids liberados.
+    List<Long> releaseExpiredReservations(int limit);
+
+    // Soma as visualizações acumuladas em memória num único UPDATE ... FROM unnest(ids, deltas)
+    // e devolve os totais atualizados (id -> view_count). Não mexe em version/updated_at nem
+    // invalida caches. Ids que não existem mais ficam fora do resultado.
+    Map<Long, Long> addViews(long[] ids, long[] deltas);
+
+    // Carga por ids pelo cache de segundo nível (multiLoad), na ordem dos ids; ids removidos são ignorados.
+    List<Product> findAllByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,252 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
+import com.thomazsilva.ecommerce.dto.ProductSummaryDTO;
+import com.thomazsilva.ecommerce.enums.ProductSortField;
+import com.thomazsilva.ecommerce.model.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+    private static final String[] PRODUCT_TABLE = { "product" };
+
+    // Derivados da imagem: mantidos se a URL não mudou, descartados (e status PENDING/NONE)
+    // se mudou, como em Product.setImageUrl. Nos CASE, "p.<coluna>" ainda é o valor antigo.
+    // O preço anterior vem do CTE com FOR UPDATE: com uma escrita concorrente na mesma linha, o
+    // SELECT espera o commit dela e lê a versão nova. Um self-join simples (FROM product old)
+    // devolveria o preço do snapshot do início do comando, já sobrescrito.
+    private static final String UPDATE_IF_VERSION = """
+        WITH old AS (SELECT id, price FROM product WHERE id = :id FOR UPDATE)
+        UPDATE product p SET
+            name = :name,
+            price = :price,
+            description = CAST(:description AS text),
+            image_url = CAST(:imageUrl AS varchar),
+            image_status = CASE
+                WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.image_status
+                WHEN coalesce(btrim(CAST(:imageUrl AS varchar)), '') = '' THEN 'NONE'
+                ELSE 'PENDING' END,
+            image_width = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.image_width END,
+            image_height = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.image_height END,
+            thumbnail_url = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.thumbnail_url END,
+            thumbnail_width = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.thumbnail_width END,
+            thumbnail_height = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.thumbnail_height END,
+            dominant_color = CASE WHEN p.image_url IS NOT DISTINCT FROM CAST(:imageUrl AS varchar) THEN p.dominant_color END,
+            version = p.version + 1,
+            updated_at = now()
+        FROM old
+        WHERE p.id = old.id
+          AND (CAST(:version AS bigint) IS NULL OR p.version = CAST(:version AS bigint))
+        RETURNING p.id, p.name, p.price, p.description, p.image_url, p.version, p.updated_at,
+            p.image_status, p.image_width, p.image_height, p.thumbnail_url, p.thumbnail_width,
+            p.thumbnail_height, p.dominant_color, p.availability, p.reserved_until,
+            old.price AS previous_price
+        """;
+
+    // Transições de reserva: cada uma é um UPDATE condicional; a linha afetada diz quem ganhou.
+    private static final String TRY_RESERVE = """
+        UPDATE product SET availability = 'RESERVED', reservation_token = :token,
+            reserved_until = now() + make_interval(secs => CAST(:ttl AS double precision)),
+            version = version + 1, updated_at = now()
+        WHERE id = :id
+          AND (availability = 'AVAILABLE' OR (availability = 'RESERVED' AND reserved_until < now()))
+        RETURNING reserved_until
+        """;
+
+    private static final String CONFIRM_RESERVATION = """
+        UPDATE product SET availability = 'SOLD', reservation_token = NULL, reserved_until = NULL,
+            version = version + 1, updated_at = now()
+        WHERE id = :id AND availability = 'RESERVED' AND reservation_token = :token AND reserved_until >= now()
+        """;
+
+    private static final String RELEASE_RESERVATION = """
+        UPDATE product SET availability = 'AVAILABLE', reservation_token = NULL, reserved_until = NULL,
+            version = version + 1, updated_at = now()
+        WHERE id = :id AND availability = 'RESERVED' AND reservation_token = :token
+        """;
+
+    private static final String RELEASE_EXPIRED_RESERVATIONS = """
+        UPDATE product SET availability = 'AVAILABLE', reservation_token = NULL, reserved_until = NULL,
+            version = version + 1, updated_at = now()
+        WHERE id IN (
+            SELECT id FROM product
+            WHERE availability = 'RESERVED' AND reserved_until < now()
+            ORDER BY reserved_until
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED)
+        RETURNING id
+        """;
+
+    private static final String ADD_VIEWS = """
+        UPDATE product p SET view_count = p.view_count + d.delta
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS bigint[])) AS d(id, delta)
+        WHERE p.id = d.id
+        RETURNING p.id, p.view_count
+        """;
+
+    private final EntityManager entityManager;
+
+    ProductRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductSummaryDTO> findSummaries(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.construct(ProductSummaryDTO.class,
+            root.get("id"), root.get("name"), root.get("price"), root.get("imageUrl"),
+            root.get("thumbnailUrl"), root.get("thumbnailWidth"), root.get("thumbnailHeight"),
+            root.get("dominantColor"), root.get("availability"), root.get("version")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        // Ordem por visualizações fica fora do cache de consultas: addViews não o invalida.
+        TypedQuery<ProductSummaryDTO> typed = entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_QUERY_PLAN_CACHEABLE, true)
+            .setHint(HibernateHints.HINT_CACHEABLE, !ProductSortField.POPULAR.appliesTo(pageable.getSort()));
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        return typed.getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Optional<ProductUpdate> updateIfVersion(Long id, Long expectedVersion, ProductRequestDTO values) {
+        List<?> rows = entityManager.createNativeQuery(UPDATE_IF_VERSION, Product.UPDATE_MAPPING)
+            .setParameter("id", id)
+            .setParameter("version", expectedVersion)
+            .setParameter("name", values.name())
+            .setParameter("price", values.price())
+            .setParameter("description", values.description())
+            .setParameter("imageUrl", values.imageUrl())
+            .getResultList();
+        if (!rows.isEmpty()) invalidateCachesOnCommit(List.of(id));
+        return rows.stream().map(ProductUpdate.class::cast).findFirst();
+    }
+
+    @Override
+    @Transactional
+    public Optional<BigDecimal> deleteReturningPrice(Long id) {
+        List<?> rows = entityManager.createNativeQuery("DELETE FROM product WHERE id = :id RETURNING price", BigDecimal.class)
+            .setParameter("id", id)
+            .getResultList();
+        if (!rows.isEmpty()) invalidateCachesOnCommit(List.of(id));
+        return rows.stream().map(BigDecimal.class::cast).findFirst();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Instant> tryReserve(Long id, UUID token, Duration ttl) {
+        List<?> rows = entityManager.createNativeQuery(TRY_RESERVE, Instant.class)
+            .setParameter("id", id)
+            .setParameter("token", token)
+            .setParameter("ttl", ttl.toMillis() / 1000.0)
+            .getResultList();
+        if (!rows.isEmpty()) invalidateCachesOnCommit(List.of(id));
+        return rows.stream().map(Instant.class::cast).findFirst();
+    }
+
+    @Override
+    @Transactional
+    public boolean confirmReservation(Long id, UUID token) {
+        return reservationTransition(CONFIRM_RESERVATION, id, token);
+    }
+
+    @Override
+    @Transactional
+    public boolean releaseReservation(Long id, UUID token) {
+        return reservationTransition(RELEASE_RESERVATION, id, token);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> releaseExpiredReservations(int limit) {
+        List<Long> ids = entityManager.createNativeQuery(RELEASE_EXPIRED_RESERVATIONS, Long.class)
+            .setParameter("limit", limit)
+            .getResultList()
+            .stream().map(Long.class::cast).toList();
+        if (!ids.isEmpty()) invalidateCachesOnCommit(ids);
+        return ids;
+    }
+
+    // O cache de segundo nível fica como está: view_count não faz parte da representação do
+    // produto, e invalidar os timestamps a cada flush esvaziaria o cache de consultas.
+    @Override
+    @Transactional
+    public Map<Long, Long> addViews(long[] ids, long[] deltas) {
+        List<?> rows = entityManager.createNativeQuery(ADD_VIEWS, Object[].class)
+            .setParameter("ids", ids)
+            .setParameter("deltas", deltas)
+            .getResultList();
+        Map<Long, Long> totals = new HashMap<>(rows.size() * 2);
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            totals.put(((Number) columns[0]).longValue(), ((Number) columns[1]).longValue());
+        }
+        return totals;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllByIdInOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+            .byMultipleIds(Product.class)
+            .multiLoad(ids)
+            .stream().filter(Objects::nonNull).toList();
+    }
+
+    private boolean reservationTransition(String sql, Long id, UUID token) {
+        boolean changed = entityManager.createNativeQuery(sql)
+            .setParameter("id", id)
+            .setParameter("token", token)
+            .executeUpdate() == 1;
+        if (changed) invalidateCachesOnCommit(List.of(id));
+        return changed;
+    }
+
+    // SQL nativo passa por fora do cache de segundo nível. Mesmo protocolo que o Hibernate usa
+    // nas escritas em lote: pré-invalida os timestamps da tabela (consultas cacheadas deixam de
+    // valer já durante a transação) e invalida de novo ao terminar, junto com as entradas destas
+    // entidades. Só as linhas alteradas saem da região "product", não a região inteira; quem não
+    // alterou nada (412, 404, disputa perdida) não invalida cache algum.
+    private void invalidateCachesOnCommit(Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(PRODUCT_TABLE, session);
+        session.getActionQueue().registerProcess((success, s) -> {
+            timestamps.invalidate(PRODUCT_TABLE, s);
+            for (Long id : ids) s.getFactory().getCache().evictEntityData(Product.class, id);
+        });
+    }
+}
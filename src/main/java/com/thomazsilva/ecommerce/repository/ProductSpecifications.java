@@ -0,0 +1,38 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.thomazsilva.ecommerce.model.Product;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {}
+
+    // Combina só os predicados dos filtros presentes: cada combinação gera sempre o mesmo
+    // SQL parametrizado, e o Hibernate/driver reaproveitam o plano entre requisições.
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> predicates = new ArrayList<>();
+        if (filter.hasName()) predicates.add(nameLike(filter.namePattern()));
+        if (filter.minPrice() != null) predicates.add(priceGreaterThanOrEqual(filter.minPrice()));
+        if (filter.maxPrice() != null) predicates.add(priceLessThanOrEqual(filter.maxPrice()));
+        return Specification.allOf(predicates);
+    }
+
+    // lower(name) LIKE :pattern, para aproveitar o índice trigram.
+    // O padrão deve chegar pronto (minúsculo e escapado, ver ProductFilter.namePattern).
+    public static Specification<Product> nameLike(String pattern) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> priceGreaterThanOrEqual(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceLessThanOrEqual(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+}
@@ -0,0 +1,36 @@
+package com.thomazsilva.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.thomazsilva.ecommerce.dto.ProductResponseDTO;
+import com.thomazsilva.ecommerce.enums.Availability;
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+
+// Linha devolvida pelo UPDATE ... RETURNING de ProductRepositoryCustom.updateIfVersion
+// (mapeamento "ProductUpdate" em Product), com o preço anterior para o histograma de contagem.
+public record ProductUpdate(
+    Long id,
+    String name,
+    BigDecimal price,
+    String description,
+    String imageUrl,
+    Long version,
+    Instant updatedAt,
+    String imageStatus,
+    Integer imageWidth,
+    Integer imageHeight,
+    String thumbnailUrl,
+    Integer thumbnailWidth,
+    Integer thumbnailHeight,
+    String dominantColor,
+    String availability,
+    Instant reservedUntil,
+    BigDecimal previousPrice
+) {
+    public ProductResponseDTO toDTO() {
+        return new ProductResponseDTO(id, name, price, description, imageUrl, version, updatedAt,
+            ImageStatus.valueOf(imageStatus), imageWidth, imageHeight, thumbnailUrl, thumbnailWidth,
+            thumbnailHeight, dominantColor, Availability.valueOf(availability), reservedUntil);
+    }
+}
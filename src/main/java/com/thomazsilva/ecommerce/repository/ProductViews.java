@@ -0,0 +1,7 @@
+package com.thomazsilva.ecommerce.repository;
+
+public interface ProductViews {
+    Long getId();
+
+    long getViewCount();
+}
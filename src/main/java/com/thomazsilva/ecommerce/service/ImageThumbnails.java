@@ -0,0 +1,101 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// Operações de imagem do pipeline (só java.desktop/ImageIO, sem dependência nativa):
+// miniatura JPEG que cabe em maxSize x maxSize e cor predominante em "#rrggbb".
+// As dimensões vêm do cabeçalho antes de decodificar: o limite em bytes (max-size) não impede
+// um PNG pequeno de dezenas de milhares de pixels de lado, então acima de maxPixels a imagem é
+// recusada, e abaixo dele a decodificação já pula linhas/colunas (subsampling) em direção ao
+// tamanho da miniatura em vez de montar a imagem inteira na memória.
+final class ImageThumbnails {
+
+    record Result(int width, int height, int thumbnailWidth, int thumbnailHeight, byte[] jpeg, String dominantColor) {}
+
+    private ImageThumbnails() {}
+
+    static Result process(byte[] source, int maxSize, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) throw new IOException("Formato de imagem não suportado");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Imagem " + width + "x" + height + " acima de product.images.max-pixels");
+                }
+                // Fator inteiro que ainda deixa o lado maior >= maxSize: a redução final continua
+                // sendo a bilinear abaixo, só sobre bem menos pixels.
+                int step = Math.max(1, Math.max(width, height) / maxSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return thumbnail(reader.read(0, param), width, height, maxSize);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static Result thumbnail(BufferedImage original, int width, int height, int maxSize) throws IOException {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int thumbWidth = Math.max(1, (int) Math.round(width * scale));
+        int thumbHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // TYPE_INT_RGB: o writer de JPEG não aceita canal alfa (PNG transparente vira fundo branco).
+        BufferedImage thumbnail = new BufferedImage(thumbWidth, thumbHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, thumbWidth, thumbHeight, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        if (!ImageIO.write(thumbnail, "jpg", jpeg)) throw new IOException("Sem encoder JPEG disponível");
+        return new Result(width, height, thumbWidth, thumbHeight, jpeg.toByteArray(), dominantColor(thumbnail));
+    }
+
+    // Histograma com 4 bits por canal sobre a miniatura (já reduzida): a cor predominante é a
+    // média dos pixels do balde mais populoso, não a média da imagem inteira (que tende ao cinza).
+    static String dominantColor(BufferedImage image) {
+        int[] counts = new int[4096];
+        long[] red = new long[4096];
+        long[] green = new long[4096];
+        long[] blue = new long[4096];
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                int r = (rgb >> 16) & 0xFF;
+                int gr = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                int bucket = (r >> 4) << 8 | (gr >> 4) << 4 | (b >> 4);
+                counts[bucket]++;
+                red[bucket] += r;
+                green[bucket] += gr;
+                blue[bucket] += b;
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) best = i;
+        }
+        int n = Math.max(1, counts[best]);
+        return String.format("#%02x%02x%02x", red[best] / n, green[best] / n, blue[best] / n);
+    }
+}
@@ -0,0 +1,55 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Quantidade de produtos por preço, mantida em memória. A chave usa compareTo,
+// então 10.0 e 10.00 caem no mesmo balde.
+class PriceHistogram {
+    private final ConcurrentSkipListMap<BigDecimal, Long> counts = new ConcurrentSkipListMap<>();
+    private final AtomicLong total = new AtomicLong();
+
+    void add(BigDecimal price, long delta) {
+        if (delta > 0) {
+            counts.merge(price, delta, Long::sum);
+            total.addAndGet(delta);
+        } else if (delta < 0) {
+            // Só desconta o que existe: a remoção de um preço que este histograma não conhece
+            // (gravado por outra instância, por exemplo) não deixa balde negativo nem desvia o total.
+            long[] removed = new long[1];
+            counts.computeIfPresent(price, (key, current) -> {
+                removed[0] = Math.min(current, -delta);
+                return current + delta <= 0 ? null : current + delta;
+            });
+            total.addAndGet(-removed[0]);
+        }
+    }
+
+    long total() {
+        return total.get();
+    }
+
+    long count(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) return 0;
+
+        ConcurrentNavigableMap<BigDecimal, Long> range = counts;
+        if (minPrice != null) range = range.tailMap(minPrice, true);
+        if (maxPrice != null) range = range.headMap(maxPrice, true);
+
+        return sum(range);
+    }
+
+    // Faixa semiaberta [from, to); "to" nulo = sem limite superior (faixas das facetas).
+    long countFrom(BigDecimal from, BigDecimal to) {
+        if (to != null && from.compareTo(to) >= 0) return 0;
+        return sum(to != null ? counts.subMap(from, true, to, false) : counts.tailMap(from, true));
+    }
+
+    private static long sum(ConcurrentNavigableMap<BigDecimal, Long> range) {
+        long sum = 0;
+        for (long count : range.values()) sum += count;
+        return sum;
+    }
+}
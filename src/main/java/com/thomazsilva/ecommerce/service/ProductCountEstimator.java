@@ -0,0 +1,159 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.thomazsilva.ecommerce.repository.PriceCount;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+// Totais das listagens paginadas sem rodar count(*) a cada página.
+// - NONE / MIN_MAX: a partir do histograma de preços mantido pelas escritas desta instância
+//   (ProductService/importação). Escritas de outras instâncias só entram na recarga periódica.
+// - Filtros por nome: aproximados, contando no máximo "product.count.name-cap" linhas.
+// O mesmo histograma dá as facetas de preço do catálogo (ProductFacetService, countByBucket).
+// Escritas que chegam durante uma carga são guardadas e reaplicadas no histograma carregado;
+// uma escrita confirmada entre o início da carga e o início da consulta pode contar duas vezes
+// até a próxima recarga.
+@Component
+public class ProductCountEstimator {
+    private final ProductRepository productRepository;
+    private final long nameCountCap;
+    // ReentrantLock em vez de synchronized: a carga faz I/O e não deve prender a carrier thread
+    // quando a aplicação roda com virtual threads.
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // Escritas pegam a leitura (compartilhada); a carga pega a escrita só para abrir o buffer e
+    // para trocar o histograma, nunca durante a consulta.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile PriceHistogram histogram;
+    // Deltas recebidos desde o início da carga em andamento; null fora de uma carga.
+    private List<PriceDelta> duringLoad;
+
+    public ProductCountEstimator(ProductRepository productRepository,
+        @Value("${product.count.name-cap:10000}") long nameCountCap) {
+        this.productRepository = productRepository;
+        this.nameCountCap = nameCountCap;
+    }
+
+    public long count(ProductFilter filter) {
+        switch (filter.type()) {
+            case NAME_MIN_MAX:
+            case NAME_MIN:
+            case NAME_MAX:
+            case NAME_ONLY:
+                return productRepository.countByNameCapped(filter.namePattern(),
+                    filter.minPrice() != null ? filter.minPrice() : ProductService.MIN_PRICE,
+                    filter.maxPrice() != null ? filter.maxPrice() : ProductService.MAX_PRICE,
+                    nameCountCap);
+            case MIN_MAX:
+                return histogram().count(filter.minPrice(), filter.maxPrice());
+            case NONE:
+            default:
+                return histogram().total();
+        }
+    }
+
+    // Produtos por faixa [bounds[i], bounds[i + 1]); a última faixa é aberta.
+    public long[] countByBucket(BigDecimal[] bounds) {
+        PriceHistogram current = histogram();
+        long[] counts = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            counts[i] = current.countFrom(bounds[i], i + 1 < bounds.length ? bounds[i + 1] : null);
+        }
+        return counts;
+    }
+
+    // -----------------------
+    // ESCRITAS (chamadas pelo ProductService após salvar/remover)
+    // -----------------------
+    public void onCreated(BigDecimal price) {
+        apply(price, 1);
+    }
+
+    public void onDeleted(BigDecimal price) {
+        apply(price, -1);
+    }
+
+    public void onPriceChanged(BigDecimal oldPrice, BigDecimal newPrice) {
+        if (oldPrice.compareTo(newPrice) == 0) return;
+        onDeleted(oldPrice);
+        onCreated(newPrice);
+    }
+
+    @Scheduled(fixedDelayString = "${product.count.refresh-interval:PT10M}",
+        initialDelayString = "${product.count.refresh-interval:PT10M}")
+    public void refresh() {
+        loadLock.lock();
+        try {
+            load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private PriceHistogram histogram() {
+        PriceHistogram current = histogram;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = histogram;
+                if (current == null) current = load();
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private void apply(BigDecimal price, long delta) {
+        swapLock.readLock().lock();
+        try {
+            PriceHistogram current = histogram;
+            if (current != null) current.add(price, delta);
+            List<PriceDelta> buffer = duringLoad;
+            if (buffer != null) buffer.add(new PriceDelta(price, delta));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Chamado com loadLock: uma carga por vez.
+    private PriceHistogram load() {
+        swapLock.writeLock().lock();
+        try {
+            duringLoad = Collections.synchronizedList(new ArrayList<>());
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        PriceHistogram loaded = null;
+        try {
+            PriceHistogram fresh = new PriceHistogram();
+            for (PriceCount row : productRepository.countByPrice()) {
+                fresh.add(row.getPrice(), row.getTotal());
+            }
+            loaded = fresh;
+        } finally {
+            swapLock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    for (PriceDelta delta : duringLoad) loaded.add(delta.price(), delta.delta());
+                    histogram = loaded;
+                }
+                duringLoad = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+        return loaded;
+    }
+
+    private record PriceDelta(BigDecimal price, long delta) {}
+}
@@ -0,0 +1,42 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.thomazsilva.ecommerce.exception.InvalidCursorException;
+import com.thomazsilva.ecommerce.model.Product;
+
+// Token opaco da paginação por cursor: guarda a última chave (price, id) entregue ao cliente.
+public final class ProductCursor {
+    public static final Sort SORT = Sort.by("price", "id");
+
+    private ProductCursor() {}
+
+    public static String encode(Product last) {
+        String raw = last.getPrice().toPlainString() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("price", new BigDecimal(raw.substring(0, separator)));
+            keys.put("id", Long.valueOf(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
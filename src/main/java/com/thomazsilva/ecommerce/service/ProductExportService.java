@@ -0,0 +1,117 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thomazsilva.ecommerce.enums.ExportFormat;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Exportação do catálogo inteiro (feed para marketplaces). As linhas vêm de um cursor
+// com fetch size limitado e são escritas direto na resposta; cada entidade é desanexada
+// logo depois de escrita, então o uso de memória não cresce com o tamanho do catálogo.
+@Service
+public class ProductExportService {
+    private static final String CSV_HEADER = "id,name,price,description,imageUrl";
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper,
+        EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        // Sem flush a cada linha (padrão do ObjectMapper, e também de generator.writeObject):
+        // seria um chunk HTTP e um sync flush do gzip por produto. O flush é um só, no fim.
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                forEachProduct(product -> writeCsv(writer, product));
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                forEachProduct(product -> writeJsonLine(generator, product));
+                generator.flush();
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private void forEachProduct(ProductWriter action) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAllBy()) {
+                products.forEach(product -> {
+                    try {
+                        action.write(product);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    entityManager.detach(product);
+                });
+            }
+        });
+    }
+
+    private void writeJsonLine(JsonGenerator generator, Product product) throws IOException {
+        lineWriter.writeValue(generator, product.toDTO());
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsv(Writer writer, Product product) throws IOException {
+        writer.write(String.valueOf(product.getId()));
+        writer.write(',');
+        writer.write(csvField(product.getName()));
+        writer.write(',');
+        writer.write(product.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(csvField(product.getDescription()));
+        writer.write(',');
+        writer.write(csvField(product.getImageUrl()));
+        writer.write('\n');
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas (aspas duplicadas).
+    private String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface ProductWriter {
+        void write(Product product) throws IOException;
+    }
+}
@@ -0,0 +1,72 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thomazsilva.ecommerce.dto.PriceBucketDTO;
+import com.thomazsilva.ecommerce.dto.ProductFacetsDTO;
+import com.thomazsilva.ecommerce.metrics.ProductQueryMetrics;
+import com.thomazsilva.ecommerce.repository.PriceBucketCount;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+// Facetas de preço da vitrine ("R$0–50 (1.234)") nas faixas de "product.facets.price-buckets".
+// - Catálogo sem filtro de nome: somadas do histograma de preços do ProductCountEstimator, que
+//   as escritas já mantêm; a tabela não é relida a cada página.
+// - Com filtro de nome: um único GROUP BY width_bucket no banco.
+// A faixa de preço do filtro é ignorada de propósito: a barra lateral continua mostrando as
+// outras faixas para o usuário trocar de faixa.
+@Service
+public class ProductFacetService {
+    private final ProductRepository productRepository;
+    private final ProductCountEstimator countEstimator;
+    private final ProductQueryMetrics queryMetrics;
+    private final BigDecimal[] bounds;
+
+    public ProductFacetService(ProductRepository productRepository, ProductCountEstimator countEstimator,
+        ProductQueryMetrics queryMetrics,
+        @Value("${product.facets.price-buckets:0,50,100,200,500}") List<BigDecimal> bounds) {
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i - 1).compareTo(bounds.get(i)) >= 0) {
+                throw new IllegalArgumentException("product.facets.price-buckets deve estar em ordem crescente: " + bounds);
+            }
+        }
+        if (bounds.isEmpty()) throw new IllegalArgumentException("product.facets.price-buckets vazio");
+        this.productRepository = productRepository;
+        this.countEstimator = countEstimator;
+        this.queryMetrics = queryMetrics;
+        this.bounds = bounds.toArray(BigDecimal[]::new);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductFacetsDTO facets(ProductFilter filter) {
+        return queryMetrics.recordFacets(filter, () -> toDTO(filter.hasName()
+            ? load(filter.namePattern())
+            : countEstimator.countByBucket(bounds)));
+    }
+
+    // width_bucket devolve 1..n; 0 (abaixo do primeiro limite) fica de fora.
+    private long[] load(String namePattern) {
+        long[] counts = new long[bounds.length];
+        for (PriceBucketCount row : productRepository.countByPriceBucket(bounds, namePattern)) {
+            int bucket = row.getBucket();
+            if (bucket >= 1 && bucket <= bounds.length) counts[bucket - 1] = row.getTotal();
+        }
+        return counts;
+    }
+
+    private ProductFacetsDTO toDTO(long[] counts) {
+        List<PriceBucketDTO> price = new ArrayList<>(bounds.length);
+        long total = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            total += counts[i];
+            price.add(new PriceBucketDTO(bounds[i], i + 1 < bounds.length ? bounds[i + 1] : null, counts[i]));
+        }
+        return new ProductFacetsDTO(total, price);
+    }
+}
@@ -0,0 +1,4 @@
+package com.thomazsilva.ecommerce.service;
+
+// Publicado pelo ProductService quando um produto gravado tem imagem pendente de processamento.
+public record ProductImageEvent(Long productId) {}
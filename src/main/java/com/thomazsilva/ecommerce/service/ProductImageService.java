@@ -0,0 +1,247 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Pipeline de imagens fora do caminho da requisição: gera a miniatura e a cor predominante da
+// imagem do produto e grava os derivados na entidade.
+// - Entrada: ProductImageEvent após o commit da escrita e, como rede de segurança, uma varredura
+//   periódica dos produtos PENDING (pega o que foi recusado pela fila, importações e reinícios).
+// - Executor limitado (product.images.workers / queue-capacity). Fila cheia não bloqueia nem
+//   falha a escrita: o produto continua PENDING e entra numa varredura seguinte.
+// - Origem: caminho relativo a product.images.source-dir ou URL http(s) de um host listado em
+//   product.images.remote-hosts (vazio = sem busca remota).
+@Service
+public class ProductImageService {
+    private static final Logger log = LoggerFactory.getLogger(ProductImageService.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Path sourceDir;
+    private final Path thumbnailDir;
+    private final String publicPath;
+    private final Set<String> remoteHosts;
+    private final int thumbnailSize;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final Duration fetchTimeout;
+    private final Counter rejected;
+    // Ids já na fila ou em processamento: evento e varredura não enfileiram o mesmo produto duas vezes.
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ProductImageService(ProductRepository productRepository, TransactionTemplate transactionTemplate,
+        @Qualifier("imageExecutor") ThreadPoolTaskExecutor executor, CacheManager cacheManager,
+        MeterRegistry meterRegistry,
+        @Value("${product.images.source-dir:data/uploads}") Path sourceDir,
+        @Value("${product.images.storage-dir:data/images}") Path storageDir,
+        @Value("${product.images.public-path:/images}") String publicPath,
+        @Value("${product.images.remote-hosts:}") Set<String> remoteHosts,
+        @Value("${product.images.thumbnail-size:320}") int thumbnailSize,
+        @Value("${product.images.max-size:5MB}") DataSize maxSize,
+        @Value("${product.images.max-pixels:40000000}") long maxPixels,
+        @Value("${product.images.fetch-timeout:PT10S}") Duration fetchTimeout
+    ) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.sourceDir = sourceDir.toAbsolutePath().normalize();
+        this.thumbnailDir = storageDir.toAbsolutePath().normalize().resolve("thumbnails");
+        this.publicPath = publicPath;
+        this.remoteHosts = remoteHosts;
+        this.thumbnailSize = thumbnailSize;
+        this.maxBytes = maxSize.toBytes();
+        this.maxPixels = maxPixels;
+        this.fetchTimeout = fetchTimeout;
+        // Sem seguir redirecionamentos: um host permitido não pode levar a busca para outro.
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(fetchTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        this.rejected = Counter.builder("product.images.rejected")
+            .description("Imagens não enfileiradas por fila cheia (ficam para a varredura)")
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageChanged(ProductImageEvent event) {
+        submit(event.productId());
+    }
+
+    public boolean submit(Long productId) {
+        if (!inFlight.add(productId)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    process(productId);
+                } finally {
+                    inFlight.remove(productId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException ex) {
+            inFlight.remove(productId);
+            rejected.increment();
+            return false;
+        }
+    }
+
+    // Enfileira só o que cabe na fila agora; o restante fica para a próxima rodada.
+    @Scheduled(fixedDelayString = "${product.images.sweep-interval:PT30S}",
+        initialDelayString = "${product.images.sweep-interval:PT30S}")
+    public void sweep() {
+        int capacity = executor.getQueueCapacity() - executor.getQueueSize();
+        if (capacity <= 0) return;
+        for (Long id : productRepository.findPendingImageIds(PageRequest.of(0, capacity))) {
+            if (!submit(id)) break;
+        }
+    }
+
+    void process(Long productId) {
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null || product.getImageStatus() != ImageStatus.PENDING) return;
+        String imageUrl = product.getImageUrl();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result;
+        try {
+            ImageThumbnails.Result image = ImageThumbnails.process(load(imageUrl), thumbnailSize, maxPixels);
+            String thumbnailUrl = storeThumbnail(productId, imageUrl, image.jpeg());
+            result = apply(productId, imageUrl, p -> p.imageProcessed(image.width(), image.height(),
+                thumbnailUrl, image.thumbnailWidth(), image.thumbnailHeight(), image.dominantColor()))
+                ? "ready" : "stale";
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Falha ao processar a imagem do produto {} ({}): {}", productId, imageUrl, ex.getMessage());
+            result = apply(productId, imageUrl, Product::imageFailed) ? "failed" : "stale";
+        }
+        sample.stop(Timer.builder("product.images.processing")
+            .description("Tempo de geração de miniatura + cor predominante")
+            .tag("result", result)
+            .register(meterRegistry));
+    }
+
+    // Grava os derivados só se o produto ainda aponta para a mesma imagem. O @Version protege
+    // contra uma edição concorrente: nesse caso nada é gravado e a varredura reprocessa.
+    private boolean apply(Long productId, String imageUrl, Consumer<Product> change) {
+        try {
+            Boolean applied = transactionTemplate.execute(status -> {
+                Product current = productRepository.findById(productId).orElse(null);
+                if (current == null || current.getImageStatus() != ImageStatus.PENDING
+                    || !Objects.equals(current.getImageUrl(), imageUrl)) {
+                    return false;
+                }
+                change.accept(current);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(applied)) return false;
+        } catch (OptimisticLockingFailureException ex) {
+            return false;
+        }
+        Cache cache = cacheManager.getCache(ProductService.PRODUCT_CACHE);
+        if (cache != null) cache.evict(productId);
+        return true;
+    }
+
+    private byte[] load(String imageUrl) throws IOException {
+        String scheme = URI.create(imageUrl).getScheme();
+        if (scheme != null && (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            return fetch(URI.create(imageUrl));
+        }
+        Path path = sourceDir.resolve(StringUtils.trimLeadingCharacter(imageUrl, '/')).normalize();
+        if (!path.startsWith(sourceDir)) throw new IOException("Caminho fora de product.images.source-dir");
+        if (Files.size(path) > maxBytes) throw new IOException("Imagem maior que product.images.max-size");
+        return Files.readAllBytes(path);
+    }
+
+    private byte[] fetch(URI uri) throws IOException {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (!remoteHosts.contains(host)) throw new IOException("Host não permitido: " + host);
+
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(fetchTimeout).GET().build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Busca interrompida", ex);
+        }
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) throw new IOException("HTTP " + response.statusCode());
+            byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+            if (bytes.length > maxBytes) throw new IOException("Imagem maior que product.images.max-size");
+            return bytes;
+        }
+    }
+
+    // Nome com hash da URL de origem: trocar a imagem gera outro arquivo, então a miniatura
+    // pode ser servida com cache longo sem risco de o cliente ver a versão antiga.
+    private String storeThumbnail(Long productId, String imageUrl, byte[] jpeg) throws IOException {
+        String fileName = productId + "-" + shortHash(imageUrl) + ".jpg";
+        Files.createDirectories(thumbnailDir);
+        Path tmp = Files.createTempFile(thumbnailDir, productId + "-", ".tmp");
+        try {
+            Files.write(tmp, jpeg);
+            Files.move(tmp, thumbnailDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return publicPath + "/thumbnails/" + fileName;
+    }
+
+    private static String shortHash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomazsilva.ecommerce.dto.ImportReportDTO;
+import com.thomazsilva.ecommerce.dto.ImportRowErrorDTO;
+import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
+import com.thomazsilva.ecommerce.exception.FieldErrorResponse;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Importação de catálogo em lote. O corpo (array JSON ou NDJSON) é lido item a item pelo
+// JsonParser, sem carregar o arquivo inteiro, e os produtos válidos são gravados em lotes de
+// "product.import.batch-size" (INSERTs em batch JDBC, ids vindos da sequência pooled).
+@Service
+public class ProductImportService {
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    private final ProductRepository productRepository;
+    private final ProductCountEstimator countEstimator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductRepository productRepository, ProductCountEstimator countEstimator,
+        ObjectMapper objectMapper, Validator validator, TransactionTemplate transactionTemplate,
+        EntityManager entityManager,
+        @Value("${product.import.batch-size:500}") int batchSize,
+        @Value("${product.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.countEstimator = countEstimator;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReportDTO importProducts(InputStream body) throws IOException {
+        Report report = new Report();
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) token = parser.nextToken();
+
+            long row = 0;
+            while (token != null && token != JsonToken.END_ARRAY) {
+                row++;
+                report.received++;
+                try {
+                    JsonNode node = objectMapper.readTree(parser);
+                    Product product = toProduct(row, node, report);
+                    if (product != null) {
+                        batch.add(product);
+                        batchRows.add(row);
+                    }
+                } catch (JsonProcessingException ex) {
+                    // Erro de sintaxe: não dá para continuar lendo o corpo com segurança.
+                    report.fail(row, List.of(new FieldErrorResponse("body", "JSON inválido: " + ex.getOriginalMessage())));
+                    break;
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchRows, report);
+                }
+                token = parser.nextToken();
+            }
+        }
+        flush(batch, batchRows, report);
+        return new ImportReportDTO(report.received, report.imported, report.failed, report.errors);
+    }
+
+    private Product toProduct(long row, JsonNode node, Report report) {
+        ProductRequestDTO dto;
+        try {
+            dto = objectMapper.treeToValue(node, ProductRequestDTO.class);
+        } catch (JsonProcessingException ex) {
+            report.fail(row, List.of(new FieldErrorResponse("body", ex.getOriginalMessage())));
+            return null;
+        }
+
+        Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            report.fail(row, violations.stream()
+                .map(v -> new FieldErrorResponse(v.getPropertyPath().toString(), v.getMessage()))
+                .toList());
+            return null;
+        }
+
+        Product product = new Product();
+        product.setName(dto.name());
+        product.setPrice(dto.price());
+        product.setDescription(dto.description());
+        product.setImageUrl(dto.imageUrl());
+        return product;
+    }
+
+    // Cada lote roda na sua própria transação; o flush/clear mantém o contexto de
+    // persistência vazio entre lotes (o open-in-view reaproveita o mesmo EntityManager).
+    // CacheMode IGNORE: produtos recém-importados não entram no cache de segundo nível.
+    // Lote recusado pelo banco: é regravado linha a linha, e só as linhas recusadas são
+    // reportadas (a mensagem do driver fica no log, não vai para o cliente).
+    private void flush(List<Product> batch, List<Long> batchRows, Report report) {
+        if (batch.isEmpty()) return;
+        try {
+            save(batch);
+            report.imported += batch.size();
+        } catch (RuntimeException ex) {
+            entityManager.clear();
+            log.debug("Lote de {} produtos recusado, regravando linha a linha: {}", batch.size(),
+                NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    save(List.of(copyOf(batch.get(i))));
+                    report.imported++;
+                } catch (RuntimeException rowEx) {
+                    entityManager.clear();
+                    log.warn("Linha {} da importação recusada pelo banco: {}", batchRows.get(i),
+                        NestedExceptionUtils.getMostSpecificCause(rowEx).getMessage());
+                    report.fail(batchRows.get(i), List.of(new FieldErrorResponse("product",
+                        rowEx instanceof DataIntegrityViolationException
+                            ? "Produto viola uma restrição do banco de dados"
+                            : "Produto recusado pelo banco de dados")));
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private void save(List<Product> products) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            productRepository.saveAll(products);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        products.forEach(product -> countEstimator.onCreated(product.getPrice()));
+    }
+
+    // A tentativa em lote já atribuiu id/versão às entidades; a regravação parte de uma cópia nova.
+    private static Product copyOf(Product source) {
+        Product product = new Product();
+        product.setName(source.getName());
+        product.setPrice(source.getPrice());
+        product.setDescription(source.getDescription());
+        product.setImageUrl(source.getImageUrl());
+        return product;
+    }
+
+    private final class Report {
+        long received;
+        long imported;
+        long failed;
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+        void fail(long row, List<FieldErrorResponse> rowErrors) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowErrorDTO(row, rowErrors));
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.thomazsilva.ecommerce.dto.ReservationDTO;
+import com.thomazsilva.ecommerce.exception.ProductNotFoundException;
+import com.thomazsilva.ecommerce.exception.ReservationConflictException;
+import com.thomazsilva.ecommerce.repository.ProductAvailability;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Reserva de peças únicas (hold -> confirm/release, com expiração).
+// - Quem decide o vencedor é o banco: um único UPDATE condicional por tentativa, sem lock de
+//   linha mantido entre requisições. Vale com várias instâncias da aplicação.
+// - Na frente do banco, um portão em memória sem locks (ConcurrentHashMap + CAS): por id, até
+//   quando a peça está fechada nesta instância. Numa disputa, só uma tentativa por vez chega
+//   ao banco; as demais recebem 409 sem consulta, e depois da primeira derrota o portão guarda
+//   o fim da reserva vencedora para barrar as próximas até lá, por no máximo
+//   "product.reservations.gate-ttl". O teto mantém o banco como autoridade: liberações feitas
+//   em outra instância (que não reabrem este portão) e a diferença entre o relógio da JVM e o
+//   now() do banco atrasam uma nova tentativa em no máximo esse prazo.
+// - Reservas vencidas são devolvidas em lotes pela varredura (product.reservations.sweep-*);
+//   uma reserva vencida e ainda não varrida já pode ser tomada por outro cliente.
+@Service
+public class ProductReservationService {
+    // Valor do portão enquanto uma tentativa desta instância está no banco.
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final Duration holdTtl;
+    private final long gateTtlMillis;
+    private final int sweepBatchSize;
+    // id -> instante (epoch ms) até o qual novas tentativas são recusadas sem ir ao banco.
+    private final ConcurrentHashMap<Long, Long> closedUntil = new ConcurrentHashMap<>();
+    private final Counter reserved;
+    private final Counter rejectedAtGate;
+    private final Counter rejectedByDatabase;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    public ProductReservationService(ProductRepository productRepository, CacheManager cacheManager,
+        MeterRegistry meterRegistry,
+        @Value("${product.reservations.hold-ttl:PT10M}") Duration holdTtl,
+        @Value("${product.reservations.gate-ttl:PT5S}") Duration gateTtl,
+        @Value("${product.reservations.sweep-batch-size:500}") int sweepBatchSize
+    ) {
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.holdTtl = holdTtl;
+        this.gateTtlMillis = gateTtl.toMillis();
+        this.sweepBatchSize = sweepBatchSize;
+        this.reserved = outcome(meterRegistry, "reserved");
+        this.rejectedAtGate = outcome(meterRegistry, "rejected_gate");
+        this.rejectedByDatabase = outcome(meterRegistry, "rejected_database");
+        this.confirmed = outcome(meterRegistry, "confirmed");
+        this.released = outcome(meterRegistry, "released");
+        this.expired = outcome(meterRegistry, "expired");
+    }
+
+    // -----------------------
+    // HOLD
+    // -----------------------
+    public ReservationDTO reserve(Long id) {
+        long now = System.currentTimeMillis();
+        if (!enterGate(id, now)) {
+            rejectedAtGate.increment();
+            throw ReservationConflictException.unavailable(id);
+        }
+        long closeUntil = 0L;
+        try {
+            UUID token = UUID.randomUUID();
+            Optional<Instant> reservedUntil = productRepository.tryReserve(id, token, holdTtl);
+            if (reservedUntil.isPresent()) {
+                closeUntil = reservedUntil.get().toEpochMilli();
+                evictDTO(id);
+                reserved.increment();
+                return new ReservationDTO(id, token, reservedUntil.get());
+            }
+            ProductAvailability current = productRepository.findAvailabilityById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+            closeUntil = switch (current.getAvailability()) {
+                case RESERVED -> current.getReservedUntil().toEpochMilli();
+                // Vendida não volta, mas fica só pelo gate-ttl: o mapa continua limitado.
+                case SOLD -> now + gateTtlMillis;
+                // Liberada entre o UPDATE e a leitura: o portão reabre.
+                case AVAILABLE -> 0L;
+            };
+            rejectedByDatabase.increment();
+            throw ReservationConflictException.unavailable(id);
+        } finally {
+            leaveGate(id, closeUntil);
+        }
+    }
+
+    // -----------------------
+    // CONFIRM / RELEASE
+    // -----------------------
+    public void confirm(Long id, UUID token) {
+        if (!productRepository.confirmReservation(id, token)) throw rejectToken(id);
+        closedUntil.compute(id, (key, until) -> until != null && until == IN_FLIGHT
+            ? until
+            : System.currentTimeMillis() + gateTtlMillis);
+        evictDTO(id);
+        confirmed.increment();
+    }
+
+    public void release(Long id, UUID token) {
+        if (!productRepository.releaseReservation(id, token)) throw rejectToken(id);
+        reopenGate(id);
+        evictDTO(id);
+        released.increment();
+    }
+
+    // -----------------------
+    // EXPIRAÇÃO
+    // -----------------------
+    // Lotes de sweep-batch-size até não sobrar reserva vencida; entradas vencidas do portão
+    // (inclusive as de outras instâncias e as de peças vendidas) saem junto.
+    @Scheduled(fixedDelayString = "${product.reservations.sweep-interval:PT15S}",
+        initialDelayString = "${product.reservations.sweep-interval:PT15S}")
+    public int releaseExpired() {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = productRepository.releaseExpiredReservations(sweepBatchSize);
+            for (Long id : ids) {
+                reopenGate(id);
+                evictDTO(id);
+            }
+            total += ids.size();
+        } while (ids.size() == sweepBatchSize);
+        long now = System.currentTimeMillis();
+        closedUntil.values().removeIf(until -> until <= now);
+        expired.increment(total);
+        return total;
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+    // CAS sobre o valor atual: entra quem encontra o portão ausente ou vencido.
+    private boolean enterGate(Long id, long now) {
+        Long until = closedUntil.putIfAbsent(id, IN_FLIGHT);
+        if (until == null) return true;
+        return until <= now && closedUntil.replace(id, until, IN_FLIGHT);
+    }
+
+    // Fecha até closeUntil, limitado a gate-ttl a partir de agora.
+    private void leaveGate(Long id, long closeUntil) {
+        long now = System.currentTimeMillis();
+        if (closeUntil > now) closedUntil.replace(id, IN_FLIGHT, Math.min(closeUntil, now + gateTtlMillis));
+        else closedUntil.remove(id, IN_FLIGHT);
+    }
+
+    // Não derruba uma tentativa em andamento.
+    private void reopenGate(Long id) {
+        closedUntil.computeIfPresent(id, (key, until) -> until == IN_FLIGHT ? until : null);
+    }
+
+    private RuntimeException rejectToken(Long id) {
+        if (!productRepository.existsById(id)) return new ProductNotFoundException(id);
+        return ReservationConflictException.invalidToken(id);
+    }
+
+    private void evictDTO(Long id) {
+        Cache cache = cacheManager.getCache(ProductService.PRODUCT_CACHE);
+        if (cache != null) cache.evict(id);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("product.reservations")
+            .description("Tentativas e transições de reserva, por resultado")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -2,133 +2,259 @@ package com.thomazsilva.ecommerce.service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.thomazsilva.ecommerce.dto.PageResponseDTO;
 import com.thomazsilva.ecommerce.dto.ProductRequestDTO;
+import com.thomazsilva.ecommerce.dto.ProductResponseDTO;
+import com.thomazsilva.ecommerce.dto.ProductSummaryDTO;
+import com.thomazsilva.ecommerce.enums.CountMode;
 import com.thomazsilva.ecommerce.enums.FilterType;
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+import com.thomazsilva.ecommerce.enums.ProductSortField;
+import com.thomazsilva.ecommerce.exception.PreconditionFailedException;
 import com.thomazsilva.ecommerce.exception.ProductNotFoundException;
+import com.thomazsilva.ecommerce.metrics.ProductQueryMetrics;
 import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
 import com.thomazsilva.ecommerce.repository.ProductRepository;
+import com.thomazsilva.ecommerce.repository.ProductSpecifications;
+import com.thomazsilva.ecommerce.repository.ProductUpdate;
 
 @Service
 public class ProductService {
+    public static final String PRODUCT_CACHE = "products";
+
     private final ProductRepository productRepository;
-    private static final BigDecimal MAX_PRICE = new BigDecimal("999999999999999");
-    private static final BigDecimal MIN_PRICE = BigDecimal.ZERO;
+    private final ProductCountEstimator countEstimator;
+    private final CountMode defaultCountMode;
+    private final long searchCountCap;
+    private final ProductQueryMetrics queryMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductViewCounter viewCounter;
+    static final BigDecimal MAX_PRICE = new BigDecimal("999999999999999");
+    static final BigDecimal MIN_PRICE = BigDecimal.ZERO;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCountEstimator countEstimator,
+        @Value("${product.count.mode:EXACT}") CountMode defaultCountMode,
+        @Value("${product.count.search-cap:10000}") long searchCountCap, ProductQueryMetrics queryMetrics,
+        ApplicationEventPublisher eventPublisher, ProductViewCounter viewCounter) {
         this.productRepository = productRepository;
+        this.countEstimator = countEstimator;
+        this.defaultCountMode = defaultCountMode;
+        this.searchCountCap = searchCountCap;
+        this.queryMetrics = queryMetrics;
+        this.eventPublisher = eventPublisher;
+        this.viewCounter = viewCounter;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @CacheEvict(cacheNames = PRODUCT_CACHE, key = "#result.id")
     public Product newProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        countEstimator.onCreated(saved.getPrice());
+        requestImageProcessing(saved);
+        return saved;
     }
 
     // -----------------------
     // READ
     // -----------------------
+    @Transactional(readOnly = true)
     public Product findById(Long id) {
         return productRepository.findById(id)
             .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
+    // Detalhe do produto (rota mais acessada): o DTO fica no cache "products" (Caffeine),
+    // então a conversão toDTO acontece uma vez por carga do cache e não a cada requisição.
+    // Produto inexistente lança exceção e não é cacheado.
+    @Cacheable(cacheNames = PRODUCT_CACHE, key = "#id")
+    @Transactional(readOnly = true)
+    public ProductResponseDTO findDTOById(Long id) {
+        return findById(id).toDTO();
+    }
+
+    @CacheEvict(cacheNames = PRODUCT_CACHE, key = "#id")
     public Product updateProduct(Long id, Product product) {
         Product existingProduct = findById(id);
+        BigDecimal oldPrice = existingProduct.getPrice();
         existingProduct.setName(product.getName());
         existingProduct.setPrice(product.getPrice());
         existingProduct.setDescription(product.getDescription());
         existingProduct.setImageUrl(product.getImageUrl());
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        countEstimator.onPriceChanged(oldPrice, saved.getPrice());
+        requestImageProcessing(saved);
+        return saved;
     }
 
     // -----------------------
     // DELETE
     // -----------------------
+    // Um único DELETE ... RETURNING price: a linha afetada decide entre 204 e 404,
+    // sem carregar a entidade antes.
+    @CacheEvict(cacheNames = PRODUCT_CACHE, key = "#id")
     public void deleteProduct(Long id) {
-        Product existingProduct = findById(id);
-        productRepository.deleteById(existingProduct.getId());
-    }
-
-    private FilterType detectFilterType(String name, BigDecimal minPrice, BigDecimal maxPrice) {
-        boolean hasName = name != null && !name.isBlank();
-        boolean hasMin = minPrice != null;
-        boolean hasMax = maxPrice != null;
-
-        if (hasName && hasMin && hasMax) return FilterType.NAME_MIN_MAX;
-        if (hasName && hasMin) return FilterType.NAME_MIN;
-        if (hasName && hasMax) return FilterType.NAME_MAX;
-        if (hasName) return FilterType.NAME_ONLY;
-        if (hasMin || hasMax) return FilterType.MIN_MAX;
-
-        return FilterType.NONE;
+        BigDecimal price = productRepository.deleteReturningPrice(id)
+            .orElseThrow(() -> new ProductNotFoundException(id));
+        countEstimator.onDeleted(price);
+        viewCounter.forget(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> filterByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        return filter(new ProductFilter(name, null, null), Sort.unsorted());
     }
 
+    @Transactional(readOnly = true)
     public List<Product> filterByPrice(BigDecimal minPrice, BigDecimal maxPrice) {
-        if (minPrice == null) return productRepository.findByPriceLessThanEqual(maxPrice);
-        if (maxPrice == null) return productRepository.findByPriceGreaterThanEqual(minPrice);
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        return filter(new ProductFilter(null, minPrice, maxPrice), Sort.unsorted());
     }
 
+    @Transactional(readOnly = true)
     public List<Product> filterByNameAndPrice(String name, BigDecimal minPrice, BigDecimal maxPrice) {
-        FilterType type = detectFilterType(name, minPrice, maxPrice);
-        switch (type) {
-            case NAME_MIN_MAX:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceBetween(
-                    name, minPrice, maxPrice);
-            case NAME_MIN:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceGreaterThanEqual(
-                    name, minPrice);
-            case NAME_MAX:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceLessThanEqual(
-                    name, maxPrice);
-            case NAME_ONLY:
-                return productRepository.findByNameContainingIgnoreCase(name);
-            case MIN_MAX:
-                return filterByPrice(minPrice, maxPrice);
-            case NONE:
-            default:
-                return getAllProducts();
+        return filter(new ProductFilter(name, minPrice, maxPrice), Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Product> filter(ProductFilter filter, Sort sort) {
+        Specification<Product> spec = ProductSpecifications.matching(filter);
+        // sort=popular sem o cache de consultas (ver rankedIds).
+        if (ProductSortField.POPULAR.appliesTo(sort)) {
+            return productRepository.findBy(spec, q -> q.sortBy(sort).all());
         }
+        return productRepository.findAll(spec, sort);
     }
 
+    @Transactional(readOnly = true)
     public Page<Product> filterByNameAndPricePaginated(
         String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable
     ) {
-        FilterType type = detectFilterType(name, minPrice, maxPrice);
-        switch (type) {
-            case NAME_MIN_MAX:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceBetween(
-                    name, minPrice, maxPrice, pageable);
-            case NAME_MIN:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceGreaterThanEqual(
-                    name, minPrice, pageable);
-            case NAME_MAX:
-                return productRepository.findByNameContainingIgnoreCaseAndPriceLessThanEqual(
-                    name, maxPrice, pageable);
-            case NAME_ONLY:
-                return productRepository.findByNameContainingIgnoreCase(name, pageable);
-            case MIN_MAX:
-                BigDecimal realMin = (minPrice != null) ? minPrice : MIN_PRICE;
-                BigDecimal realMax = (maxPrice != null) ? maxPrice : MAX_PRICE;
-                return productRepository.findByPriceBetween(realMin, realMax, pageable);
-            case NONE:
-            default:
-                return productRepository.findAll(pageable);
-        }
+        return filterPaginated(new ProductFilter(name, minPrice, maxPrice), pageable, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Product> filterByNameAndPricePaginated(
+        String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable, CountMode countMode
+    ) {
+        return filterPaginated(new ProductFilter(name, minPrice, maxPrice), pageable, countMode);
+    }
+
+    // countMode nulo usa o padrão de "product.count.mode". No modo ESTIMATED a página é
+    // buscada como Slice (sem count(*)) e o total vem do ProductCountEstimator.
+    // Leituras em transação readOnly: o Hibernate não guarda snapshot nem faz dirty checking.
+    @Transactional(readOnly = true)
+    public Page<Product> filterPaginated(ProductFilter filter, Pageable pageable, CountMode countMode) {
+        CountMode mode = countMode != null ? countMode : defaultCountMode;
+        Specification<Product> spec = ProductSpecifications.matching(filter);
+        return queryMetrics.recordFilter(filter, mode, () -> {
+            Optional<List<Long>> ranked = rankedIds(filter, pageable);
+            if (ranked.isPresent()) {
+                return new PageImpl<>(productRepository.findAllByIdInOrder(ranked.get()), pageable,
+                    total(filter, spec, mode));
+            }
+            if (mode == CountMode.ESTIMATED && pageable.isPaged()) {
+                Slice<Product> slice = productRepository.findBy(spec,
+                    q -> q.sortBy(pageable.getSort()).slice(pageable));
+                return new PageImpl<>(slice.getContent(), pageable, countEstimator.count(filter));
+            }
+            if (ProductSortField.POPULAR.appliesTo(pageable.getSort())) {
+                return productRepository.findBy(spec, q -> q.sortBy(pageable.getSort()).page(pageable));
+            }
+            return productRepository.findAll(spec, pageable);
+        });
     }
 
+    // Mesmos filtros, mas projetando direto em ProductSummaryDTO (sem a descrição e sem
+    // entidades gerenciadas) para as grades de listagem.
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> filterSummariesPaginated(ProductFilter filter, Pageable pageable, CountMode countMode) {
+        CountMode mode = countMode != null ? countMode : defaultCountMode;
+        Specification<Product> spec = ProductSpecifications.matching(filter);
+        return queryMetrics.recordFilter(filter, mode, () -> {
+            List<ProductSummaryDTO> content = rankedIds(filter, pageable)
+                .map(ids -> productRepository.findAllByIdInOrder(ids).stream().map(Product::toSummaryDTO).toList())
+                .orElseGet(() -> productRepository.findSummaries(spec, pageable));
+            return PageableExecutionUtils.getPage(content, pageable, () -> total(filter, spec, mode));
+        });
+    }
+
+    // sort=popular sem filtros: se a página inteira cabe no ranking em memória do
+    // ProductViewCounter, os ids vêm dele e os produtos do cache de segundo nível, sem
+    // ORDER BY view_count no banco. Com filtros ou além do ranking, vazio: consulta ao banco
+    // sem o cache de consultas (findBy, ou findSummaries sem HINT_CACHEABLE). As gravações de
+    // visualizações não invalidam esse cache, e uma página cacheada ficaria até o TTL
+    // desalinhada das páginas vindas do ranking, que muda a cada gravação.
+    private Optional<List<Long>> rankedIds(ProductFilter filter, Pageable pageable) {
+        if (filter.type() != FilterType.NONE || pageable.isUnpaged()) return Optional.empty();
+        Sort.Order order = pageable.getSort().getOrderFor(ProductSortField.POPULAR.property());
+        if (order == null || order.isAscending()) return Optional.empty();
+        List<Long> ranking = viewCounter.ranking();
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > ranking.size()) return Optional.empty();
+        return Optional.of(ranking.subList((int) pageable.getOffset(), (int) end));
+    }
+
+    private long total(ProductFilter filter, Specification<Product> spec, CountMode mode) {
+        return mode == CountMode.ESTIMATED ? countEstimator.count(filter) : productRepository.count(spec);
+    }
+
+    // Busca textual em nome e descrição, ordenada por relevância (ts_rank). Os limites de preço
+    // do filtro continuam valendo; o nome é ignorado, já que o texto buscado cobre o nome.
+    // A ordenação do Pageable é descartada: a ordem é sempre a de relevância.
+    // O total é limitado a "product.count.search-cap" (termos comuns casam com boa parte do
+    // catálogo, e contar todos custava mais que a página), e nem é consultado quando a
+    // primeira página já vem incompleta.
+    @Transactional(readOnly = true)
+    public Page<Product> search(String query, ProductFilter filter, Pageable pageable) {
+        String text = query.trim();
+        BigDecimal min = filter.minPrice() != null ? filter.minPrice() : MIN_PRICE;
+        BigDecimal max = filter.maxPrice() != null ? filter.maxPrice() : MAX_PRICE;
+        Pageable unsorted = pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : pageable;
+        return queryMetrics.recordSearch(query, filter, () -> PageableExecutionUtils.getPage(
+            productRepository.searchRanked(text, min, max, unsorted), unsorted,
+            () -> productRepository.countSearchCapped(text, min, max, searchCountCap)));
+    }
+
+    // Paginação por cursor (keyset): ordena por (price, id) e continua a partir da última
+    // chave entregue, sem OFFSET e sem a consulta de count(*) do Page.
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProductResponseDTO> filterAfter(ProductFilter filter, String after, int size) {
+        Window<Product> window = productRepository.findBy(ProductSpecifications.matching(filter),
+            q -> q.sortBy(ProductCursor.SORT).limit(size).scroll(ProductCursor.decode(after)));
+
+        List<Product> content = window.getContent();
+        String nextCursor = window.hasNext() && !content.isEmpty()
+            ? ProductCursor.encode(content.get(content.size() - 1))
+            : null;
+        return PageResponseDTO.cursor(content.stream().map(Product::toDTO).toList(), size, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
     public Page<Product> getAllProductsPaginated(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return productRepository.findAll(pageable);
@@ -146,27 +272,45 @@ public class ProductService {
         return product;
     }
 
-    private void updateEntity(Product product, ProductRequestDTO dto) {
-        product.setName(dto.name());
-        product.setPrice(dto.price());
-        product.setDescription(dto.description());
-        product.setImageUrl(dto.imageUrl());
+    // Miniatura e cor predominante são geradas pelo ProductImageService depois do commit,
+    // fora da requisição; a resposta sai com imageStatus PENDING.
+    private void requestImageProcessing(Product saved) {
+        requestImageProcessing(saved.getId(), saved.getImageStatus());
+    }
+
+    private void requestImageProcessing(Long id, ImageStatus status) {
+        if (status == ImageStatus.PENDING) {
+            eventPublisher.publishEvent(new ProductImageEvent(id));
+        }
     }
 
     // -----------------------
     // CREATE DTO (POST)
     // -----------------------
+    @CacheEvict(cacheNames = PRODUCT_CACHE, key = "#result.id")
     public Product createProduct(ProductRequestDTO dto) {
         Product product = fromDTO(dto);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        countEstimator.onCreated(saved.getPrice());
+        requestImageProcessing(saved);
+        return saved;
     }
 
     // -----------------------
     // UPDATE DTO (PUT)
     // -----------------------
-    public Product updateProduct(Long id, ProductRequestDTO dto) {
-        Product existing = findById(id);
-        updateEntity(existing, dto);
-        return productRepository.save(existing);
+    // expectedVersion vem do If-Match (nulo = incondicional). A checagem de versão e a escrita
+    // são o mesmo UPDATE, então duas requisições com a mesma versão não se sobrescrevem: a
+    // segunda não encontra a linha e recebe 412. O DTO devolvido já vai para o cache "products".
+    @CachePut(cacheNames = PRODUCT_CACHE, key = "#id")
+    public ProductResponseDTO updateProduct(Long id, Long expectedVersion, ProductRequestDTO dto) {
+        ProductUpdate updated = productRepository.updateIfVersion(id, expectedVersion, dto)
+            .orElseThrow(() -> expectedVersion != null && productRepository.existsById(id)
+                ? new PreconditionFailedException(id)
+                : new ProductNotFoundException(id));
+        countEstimator.onPriceChanged(updated.previousPrice(), updated.price());
+        ProductResponseDTO response = updated.toDTO();
+        requestImageProcessing(id, response.imageStatus());
+        return response;
     }
 }
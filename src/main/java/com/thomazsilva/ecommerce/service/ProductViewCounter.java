@@ -0,0 +1,192 @@
+package com.thomazsilva.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+import com.thomazsilva.ecommerce.repository.ProductViews;
+
+import jakarta.annotation.PreDestroy;
+
+// Visualizações de produto (write-behind) e ranking dos mais vistos para sort=popular.
+// - GET /products/{id} só incrementa um LongAdder por produto: nenhuma escrita no banco na
+//   rota mais acessada, e threads concorrentes no mesmo produto não disputam o mesmo contador.
+// - A cada "product.views.flush-interval" os deltas vão para o banco em lotes de
+//   "product.views.flush-batch-size" (um UPDATE ... FROM unnest por lote); os totais devolvidos
+//   alimentam o ranking (top-K de "product.views.ranking-size").
+// - O ranking só guarda produtos com visualizações. Como os totais só crescem e todo total
+//   alterado passa por aqui, ele continua exato sem varrer a tabela; a recarga periódica
+//   ("product.views.ranking-refresh") absorve o que outras instâncias gravaram.
+@Component
+public class ProductViewCounter {
+    private static final Logger log = LoggerFactory.getLogger(ProductViewCounter.class);
+    // Mesma ordem do índice idx_product_view_count: view_count desc, id desc.
+    private static final Comparator<Ranked> ORDER = Comparator.comparingLong(Ranked::views)
+        .thenComparingLong(Ranked::id)
+        .reversed();
+
+    private final ProductRepository productRepository;
+    private final int flushBatchSize;
+    private final int rankingSize;
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // ReentrantLock em vez de synchronized: a recarga faz I/O (ver ProductCountEstimator).
+    private final ReentrantLock rankingLock = new ReentrantLock();
+    private final TreeSet<Ranked> top = new TreeSet<>(ORDER);
+    private final Map<Long, Ranked> topById = new HashMap<>();
+    // Cópia imutável publicada a cada mudança: a leitura das listagens não pega o lock.
+    private volatile List<Long> ranking;
+    private volatile boolean rankingIncomplete;
+
+    public ProductViewCounter(ProductRepository productRepository,
+        @Value("${product.views.flush-batch-size:1000}") int flushBatchSize,
+        @Value("${product.views.ranking-size:1000}") int rankingSize) {
+        this.productRepository = productRepository;
+        this.flushBatchSize = flushBatchSize;
+        this.rankingSize = rankingSize;
+    }
+
+    public void record(Long productId) {
+        LongAdder views = pending.get(productId);
+        if (views == null) views = pending.computeIfAbsent(productId, id -> new LongAdder());
+        views.increment();
+    }
+
+    // Ids dos mais vistos, do maior para o menor (no máximo ranking-size).
+    public List<Long> ranking() {
+        List<Long> current = ranking;
+        if (current == null) {
+            load(false);
+            current = ranking;
+        }
+        return current;
+    }
+
+    // Produto removido: sai do ranking, e a vaga é preenchida na próxima gravação.
+    public void forget(Long productId) {
+        pending.remove(productId);
+        rankingLock.lock();
+        try {
+            Ranked removed = topById.remove(productId);
+            if (removed != null) {
+                top.remove(removed);
+                rankingIncomplete = true;
+                publish();
+            }
+        } finally {
+            rankingLock.unlock();
+        }
+    }
+
+    // -----------------------
+    // GRAVAÇÃO EM LOTE
+    // -----------------------
+    // Contadores sem visualizações desde a última gravação saem do mapa. Uma visualização
+    // concorrente com essa remoção pode se perder: é um contador de popularidade, não de cobrança.
+    @Scheduled(fixedDelayString = "${product.views.flush-interval:PT10S}",
+        initialDelayString = "${product.views.flush-interval:PT10S}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        pending.forEach((id, views) -> {
+            long delta = views.sumThenReset();
+            if (delta == 0) {
+                pending.remove(id, views);
+            } else {
+                ids.add(id);
+                deltas.add(delta);
+            }
+        });
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            int to = Math.min(from + flushBatchSize, ids.size());
+            long[] batchIds = ids.subList(from, to).stream().mapToLong(Long::longValue).toArray();
+            long[] batchDeltas = deltas.subList(from, to).stream().mapToLong(Long::longValue).toArray();
+            try {
+                offer(productRepository.addViews(batchIds, batchDeltas));
+            } catch (DataAccessException ex) {
+                // Devolve o lote aos contadores: entra de novo na próxima gravação.
+                log.warn("Falha ao gravar {} contadores de visualização: {}", batchIds.length, ex.getMessage());
+                for (int i = 0; i < batchIds.length; i++) {
+                    pending.computeIfAbsent(batchIds[i], id -> new LongAdder()).add(batchDeltas[i]);
+                }
+            }
+        }
+        if (rankingIncomplete) load(true);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // -----------------------
+    // RANKING
+    // -----------------------
+    @Scheduled(fixedDelayString = "${product.views.ranking-refresh:PT5M}",
+        initialDelayString = "${product.views.ranking-refresh:PT5M}")
+    public void refreshRanking() {
+        load(true);
+    }
+
+    // A consulta roda sob o lock para uma gravação concorrente não ser sobrescrita por totais
+    // lidos antes dela.
+    private void load(boolean force) {
+        rankingLock.lock();
+        try {
+            if (!force && ranking != null) return;
+            top.clear();
+            topById.clear();
+            for (ProductViews views : productRepository.findMostViewed(PageRequest.of(0, rankingSize))) {
+                Ranked entry = new Ranked(views.getId(), views.getViewCount());
+                top.add(entry);
+                topById.put(entry.id(), entry);
+            }
+            rankingIncomplete = false;
+            publish();
+        } finally {
+            rankingLock.unlock();
+        }
+    }
+
+    private void offer(Map<Long, Long> totals) {
+        if (totals.isEmpty()) return;
+        rankingLock.lock();
+        try {
+            // Ainda não carregado: a primeira carga já lê estes totais do banco.
+            if (ranking == null) return;
+            for (Map.Entry<Long, Long> total : totals.entrySet()) {
+                Ranked previous = topById.remove(total.getKey());
+                if (previous != null) top.remove(previous);
+                Ranked entry = new Ranked(total.getKey(), total.getValue());
+                if (top.size() < rankingSize || ORDER.compare(entry, top.last()) < 0) {
+                    top.add(entry);
+                    topById.put(entry.id(), entry);
+                    if (top.size() > rankingSize) topById.remove(top.pollLast().id());
+                }
+            }
+            publish();
+        } finally {
+            rankingLock.unlock();
+        }
+    }
+
+    private void publish() {
+        ranking = top.stream().map(Ranked::id).toList();
+    }
+
+    private record Ranked(long id, long views) {}
+}
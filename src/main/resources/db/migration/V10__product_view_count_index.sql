@@ -0,0 +1,3 @@
+-- sort=popular além do ranking em memória, e a recarga do ranking (ordem view_count desc, id desc).
+-- CONCURRENTLY: não bloqueia escritas; o Flyway roda esta migração fora de transação.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_view_count ON product (view_count DESC, id DESC);
@@ -0,0 +1,28 @@
+-- Esquema inicial, equivalente ao que o ddl-auto=update + schema.sql mantinham até aqui.
+-- Idempotente: em bases já existentes (baseline-version=0) só completa o que faltar.
+
+CREATE SEQUENCE IF NOT EXISTS product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS product (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    price       NUMERIC(38, 2) NOT NULL,
+    description TEXT,
+    image_url   VARCHAR(255)
+);
+
+-- Versão e data de alteração (ETags)
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version BIGINT;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+UPDATE product SET version = 0 WHERE version IS NULL;
+UPDATE product SET updated_at = now() WHERE updated_at IS NULL;
+ALTER TABLE product ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE product ALTER COLUMN version SET NOT NULL;
+
+-- Bases criadas com ids IDENTITY: avança a sequência para além do maior id já existente.
+SELECT setval('product_seq', (SELECT MAX(id) FROM product) + 50)
+WHERE (SELECT MAX(id) FROM product) >= (SELECT last_value FROM product_seq);
+
+-- Índice trigram para a busca por nome (lower(name) LIKE '%termo%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Filtro por faixa de preço + ORDER BY price, id (asc ou desc) atendidos direto pelo índice,
+-- inclusive a paginação por cursor de /products/scroll.
+-- CONCURRENTLY: não bloqueia escritas; o Flyway roda esta migração fora de transação.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_price_id ON product (price, id);
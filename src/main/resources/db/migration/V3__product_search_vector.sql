@@ -0,0 +1,16 @@
+-- Busca textual em nome e descrição: configuração "pt_unaccent" (stemmer português sem
+-- acentos, "calça" casa com "calca") e coluna gerada mantida pelo próprio Postgres a cada
+-- INSERT/UPDATE. O índice GIN para o operador @@ fica na V7 (CONCURRENTLY).
+-- Atenção: coluna STORED reescreve a tabela inteira sob ACCESS EXCLUSIVE (leituras e escritas
+-- em product esperam até o fim); em base grande, aplicar numa janela de manutenção.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE TEXT SEARCH CONFIGURATION pt_unaccent (COPY = portuguese);
+ALTER TEXT SEARCH CONFIGURATION pt_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+
+-- Nome pesa mais que descrição no ts_rank (A > B).
+ALTER TABLE product ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('pt_unaccent', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('pt_unaccent', coalesce(description, '')), 'B')
+) STORED;
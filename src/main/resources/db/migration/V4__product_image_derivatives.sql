@@ -0,0 +1,14 @@
+-- Derivados da imagem do produto, preenchidos em segundo plano pelo ProductImageService:
+-- miniatura (URL e dimensões), dimensões da original e cor predominante (placeholder).
+-- Colunas com default constante ou nulas não reescrevem a tabela. Índice na V8 (CONCURRENTLY).
+ALTER TABLE product ADD COLUMN image_status VARCHAR(16) NOT NULL DEFAULT 'NONE';
+ALTER TABLE product ADD COLUMN image_width INTEGER;
+ALTER TABLE product ADD COLUMN image_height INTEGER;
+ALTER TABLE product ADD COLUMN thumbnail_url VARCHAR(255);
+ALTER TABLE product ADD COLUMN thumbnail_width INTEGER;
+ALTER TABLE product ADD COLUMN thumbnail_height INTEGER;
+ALTER TABLE product ADD COLUMN dominant_color VARCHAR(7);
+
+-- Produtos já cadastrados com imagem entram na fila da varredura (uma nova versão de cada linha
+-- com imagem, sem lock de tabela).
+UPDATE product SET image_status = 'PENDING' WHERE image_url IS NOT NULL AND image_url <> '';
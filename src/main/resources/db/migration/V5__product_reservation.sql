@@ -0,0 +1,6 @@
+-- Reserva de peças únicas (ProductReservationService): quem ganha a disputa recebe um token e
+-- segura a peça até reserved_until; confirmar marca SOLD, liberar ou expirar volta a AVAILABLE.
+-- Default constante: só altera o catálogo, sem reescrever a tabela. Índice na V9 (CONCURRENTLY).
+ALTER TABLE product ADD COLUMN availability VARCHAR(16) NOT NULL DEFAULT 'AVAILABLE';
+ALTER TABLE product ADD COLUMN reservation_token UUID;
+ALTER TABLE product ADD COLUMN reserved_until TIMESTAMP(6) WITH TIME ZONE;
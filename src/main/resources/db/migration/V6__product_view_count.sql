@@ -0,0 +1,3 @@
+-- Visualizações acumuladas do produto, gravadas em lote pelo ProductViewCounter (write-behind).
+-- Default constante: só altera o catálogo, sem reescrever a tabela. Índice na V10 (CONCURRENTLY).
+ALTER TABLE product ADD COLUMN view_count BIGINT NOT NULL DEFAULT 0;
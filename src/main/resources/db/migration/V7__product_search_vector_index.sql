@@ -0,0 +1,3 @@
+-- Índice GIN da busca textual (operador @@ sobre search_vector, coluna criada na V3).
+-- CONCURRENTLY: não bloqueia escritas; o Flyway roda esta migração fora de transação.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_search_vector ON product USING gin (search_vector);
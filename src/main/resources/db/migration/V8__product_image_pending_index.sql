@@ -0,0 +1,3 @@
+-- Varredura dos pendentes sem ler a tabela inteira (o índice só contém as linhas PENDING).
+-- CONCURRENTLY: não bloqueia escritas; o Flyway roda esta migração fora de transação.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_image_pending ON product (id) WHERE image_status = 'PENDING';
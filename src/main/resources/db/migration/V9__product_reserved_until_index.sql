@@ -0,0 +1,4 @@
+-- Varredura das reservas vencidas sem ler a tabela inteira (só as linhas RESERVED entram no índice).
+-- CONCURRENTLY: não bloqueia escritas; o Flyway roda esta migração fora de transação.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_reserved_until ON product (reserved_until)
+    WHERE availability = 'RESERVED';
@@ -0,0 +1,57 @@
+package com.thomazsilva.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+class BulkheadDataSourceTest {
+    private final DataSource target = mock(DataSource.class);
+    private final BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, Duration.ofMillis(50));
+
+    @Test
+    void permitIsHeldUntilConnectionIsClosed() throws SQLException {
+        Connection real = mock(Connection.class);
+        when(target.getConnection()).thenReturn(real);
+
+        Connection first = bulkhead.getConnection();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        verify(real).close();
+        assertThat(((ConnectionProxy) bulkhead.getConnection()).getTargetConnection()).isSameAs(real);
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws SQLException {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+
+        Connection connection = bulkhead.getConnection();
+        connection.close();
+        connection.close();
+
+        bulkhead.getConnection();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void failedAcquisitionFromPoolReturnsPermit() throws SQLException {
+        when(target.getConnection())
+            .thenThrow(new SQLTransientConnectionException("pool esgotado"))
+            .thenReturn(mock(Connection.class));
+
+        assertThatThrownBy(bulkhead::getConnection).hasMessage("pool esgotado");
+        assertThat(bulkhead.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,202 @@
+package com.thomazsilva.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionExecution;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Primário e réplica por streaming reais (a réplica nasce de um pg_basebackup do primário).
+// Confere para onde vão as conexões read-only do DataSource montado como no
+// ReplicaRoutingConfig: réplica em dia, primário com a réplica atrasada ou desconectada, e
+// primário logo depois de um commit de escrita. Sem Docker disponível o teste é ignorado.
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+    private static final Duration MAX_LAG = Duration.ofMillis(500);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withNetwork(NETWORK)
+        .withNetworkAliases("primary")
+        .withCopyToContainer(Transferable.of("echo 'host replication all all trust' >> \"$PGDATA/pg_hba.conf\"\n"),
+            "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16-alpine")
+        .withNetwork(NETWORK)
+        .dependsOn(PRIMARY)
+        .withExposedPorts(5432)
+        .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres").withEntrypoint("sh", "-c",
+            "pg_basebackup -h primary -U test -D /tmp/replica -R -X stream && chmod 700 /tmp/replica"
+                + " && exec postgres -D /tmp/replica"))
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    private HikariDataSource primary;
+    private ReplicaRoutingDataSource routing;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary", PRIMARY.getJdbcUrl());
+        HikariDataSource replica = pool("replica-1", replicaUrl());
+        replica.setReadOnly(true);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), MAX_LAG,
+            Duration.ofSeconds(30), new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        dataSource = new ReplicaRoutingConfig(false).dataSource(primary, routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyReadsGoToReplicaAndWritesToPrimary() throws SQLException {
+        awaitRoutedToReplica();
+
+        assertThat(inRecovery(false)).isFalse();
+    }
+
+    @Test
+    void replicaBehindMaxLagFallsBackToPrimary() throws Exception {
+        awaitRoutedToReplica();
+        execute(replicaUrl(), "SELECT pg_wal_replay_pause()");
+        try {
+            writeOnPrimary();
+            Thread.sleep(MAX_LAG.toMillis() * 2);
+            routing.checkLag();
+
+            assertThat(inRecovery(true)).isFalse();
+        } finally {
+            execute(replicaUrl(), "SELECT pg_wal_replay_resume()");
+        }
+        awaitRoutedToReplica();
+    }
+
+    // WAL receiver desconectado: a réplica aplicou tudo o que recebeu, mas não o que o primário
+    // gravou depois. Medir só recebido x aplicado daria atraso 0.
+    @Test
+    void disconnectedReplicaFallsBackToPrimary() throws Exception {
+        awaitRoutedToReplica();
+        String conninfo = query(replicaUrl(), "SHOW primary_conninfo");
+        setPrimaryConninfo("host=nowhere.invalid user=test");
+        try {
+            await().atMost(TIMEOUT).until(() -> query(replicaUrl(),
+                "SELECT count(*) FROM pg_stat_wal_receiver WHERE status = 'streaming'").equals("0"));
+            writeOnPrimary();
+            Thread.sleep(MAX_LAG.toMillis() * 2);
+            routing.checkLag();
+
+            assertThat(inRecovery(true)).isFalse();
+        } finally {
+            setPrimaryConninfo(conninfo);
+        }
+        awaitRoutedToReplica();
+    }
+
+    // A janela de read-your-writes (30 s aqui) fecha antes do prazo assim que a réplica alcança
+    // a posição do WAL do primário.
+    @Test
+    void readsStickToPrimaryAfterCommitUntilReplicaCatchesUp() throws Exception {
+        awaitRoutedToReplica();
+        writeOnPrimary();
+        TransactionExecution write = mock(TransactionExecution.class);
+        when(write.isReadOnly()).thenReturn(false);
+        routing.afterCommit(write, null);
+
+        assertThat(inRecovery(true)).isFalse();
+        awaitRoutedToReplica();
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+    private void awaitRoutedToReplica() {
+        await().atMost(TIMEOUT).pollInterval(Duration.ofMillis(200)).until(() -> {
+            routing.checkLag();
+            return inRecovery(true);
+        });
+    }
+
+    // Para onde foi a conexão: pg_is_in_recovery() só é verdadeiro na réplica.
+    private boolean inRecovery(boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery("SELECT pg_is_in_recovery()")) {
+                result.next();
+                return result.getBoolean(1);
+            }
+        }
+    }
+
+    private static void writeOnPrimary() throws SQLException {
+        execute(PRIMARY.getJdbcUrl(), "CREATE TABLE IF NOT EXISTS lag_probe (id bigserial PRIMARY KEY)");
+        execute(PRIMARY.getJdbcUrl(), "INSERT INTO lag_probe DEFAULT VALUES");
+    }
+
+    private static void setPrimaryConninfo(String conninfo) throws SQLException {
+        execute(replicaUrl(), "ALTER SYSTEM SET primary_conninfo = '" + conninfo.replace("'", "''") + "'");
+        execute(replicaUrl(), "SELECT pg_reload_conf()");
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":" + REPLICA.getMappedPort(5432) + "/"
+            + PRIMARY.getDatabaseName();
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(PRIMARY.getUsername());
+        pool.setPassword(PRIMARY.getPassword());
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, PRIMARY.getUsername(), PRIMARY.getPassword());
+            Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String query(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, PRIMARY.getUsername(), PRIMARY.getPassword());
+            Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.thomazsilva.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+
+import org.junit.jupiter.api.Test;
+
+class SecondLevelCacheConfigTest {
+    private final SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+
+    @Test
+    void eachContextGetsItsOwnCacheManager() {
+        try (CacheManager first = create(); CacheManager second = create()) {
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.getCache(SecondLevelCacheConfig.PRODUCT_REGION)).isNotNull();
+
+            first.close();
+            assertThat(second.isClosed()).isFalse();
+        }
+    }
+
+    private CacheManager create() {
+        return config.hibernateCacheManager(100, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+    }
+}
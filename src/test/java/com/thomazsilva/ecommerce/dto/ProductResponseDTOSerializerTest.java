@@ -0,0 +1,65 @@
+package com.thomazsilva.ecommerce.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thomazsilva.ecommerce.enums.Availability;
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+
+// O serializer manual precisa gerar exatamente o JSON da serialização por reflexão do record
+// (com preço em notação plana), que é a referência do contrato da API.
+class ProductResponseDTOSerializerTest {
+    // Datas como no ObjectMapper do Spring Boot (ISO-8601, não timestamp numérico).
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    private final ObjectMapper reflection = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .mixIn(ProductResponseDTO.class, ReflectionMixIn.class)
+        .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+        .build();
+
+    @Test
+    void fullyPopulatedMatchesReflection() throws Exception {
+        ProductResponseDTO dto = new ProductResponseDTO(42L, "Jaqueta \"jeans\" ç", new BigDecimal("129.90"),
+            "Descrição\nem duas linhas", "https://img/1.jpg", 3L, Instant.parse("2026-01-02T03:04:05.123456Z"),
+            ImageStatus.READY, 1200, 800, "https://img/1-thumb.jpg", 300, 200, "#a1b2c3",
+            Availability.RESERVED, Instant.parse("2026-01-02T03:19:05Z"));
+
+        assertThat(mapper.writeValueAsString(dto)).isEqualTo(reflection.writeValueAsString(dto));
+    }
+
+    @Test
+    void allNullsMatchReflection() throws Exception {
+        ProductResponseDTO dto = new ProductResponseDTO(null, null, null, null, null, null, null, null,
+            null, null, null, null, null, null, null, null);
+
+        assertThat(mapper.writeValueAsString(dto)).isEqualTo(reflection.writeValueAsString(dto));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1E+3", "0.0000001", "1.00", "0", "-5.5", "12345678901234567890.12" })
+    void pricesAreWrittenPlain(String price) throws Exception {
+        ProductResponseDTO dto = new ProductResponseDTO(1L, "p", new BigDecimal(price), null, null, 0L, null,
+            ImageStatus.NONE, null, null, null, null, null, null, Availability.AVAILABLE, null);
+
+        String json = mapper.writeValueAsString(dto);
+        assertThat(json).isEqualTo(reflection.writeValueAsString(dto));
+        assertThat(json).contains("\"price\":" + new BigDecimal(price).toPlainString() + ",");
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface ReflectionMixIn {}
+}
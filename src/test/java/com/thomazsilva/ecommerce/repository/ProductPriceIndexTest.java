@@ -0,0 +1,76 @@
+package com.thomazsilva.ecommerce.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Aplica as migrações num Postgres real e confere, pelo EXPLAIN, que a faixa de preço
+// ordenada por (price, id) é servida pelo índice idx_product_price_id nas duas direções.
+// Sem Docker disponível o teste é ignorado.
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPriceIndexTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+            .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+            .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+            .load()
+            .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                INSERT INTO product (id, name, price, version, updated_at)
+                SELECT n, 'Produto ' || n, (n % 5000) + 0.99, 0, now()
+                FROM generate_series(1, 100000) n
+                """);
+            statement.execute("ANALYZE product");
+        }
+    }
+
+    @Test
+    void priceRangeAscendingUsesIndex() throws SQLException {
+        assertThat(explain("ORDER BY price ASC, id ASC"))
+            .contains("idx_product_price_id")
+            .doesNotContain("Sort Key");
+    }
+
+    @Test
+    void priceRangeDescendingUsesBackwardIndexScan() throws SQLException {
+        assertThat(explain("ORDER BY price DESC, id DESC"))
+            .contains("Index Scan Backward using idx_product_price_id")
+            .doesNotContain("Sort Key");
+    }
+
+    private static String explain(String orderBy) throws SQLException {
+        String sql = "EXPLAIN SELECT * FROM product WHERE price BETWEEN 100 AND 200 " + orderBy + " LIMIT 20";
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,114 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class ImageThumbnailsTest {
+    private static final long MAX_PIXELS = 40_000_000;
+
+    @Test
+    void scalesLongestSideDownToMaxSize() throws IOException {
+        ImageThumbnails.Result result = ImageThumbnails.process(png(solid(1600, 800, Color.RED)), 320, MAX_PIXELS);
+
+        assertThat(result.width()).isEqualTo(1600);
+        assertThat(result.height()).isEqualTo(800);
+        assertThat(result.thumbnailWidth()).isEqualTo(320);
+        assertThat(result.thumbnailHeight()).isEqualTo(160);
+        BufferedImage jpeg = ImageIO.read(new ByteArrayInputStream(result.jpeg()));
+        assertThat(jpeg.getWidth()).isEqualTo(320);
+        assertThat(jpeg.getHeight()).isEqualTo(160);
+    }
+
+    // Subsampling com fator que não divide o lado (1000 / 3): as dimensões da miniatura saem das
+    // do cabeçalho, não das da imagem decodificada.
+    @Test
+    void subsampledDecodeKeepsThumbnailDimensions() throws IOException {
+        ImageThumbnails.Result result = ImageThumbnails.process(png(solid(1000, 700, Color.BLUE)), 320, MAX_PIXELS);
+
+        assertThat(result.thumbnailWidth()).isEqualTo(320);
+        assertThat(result.thumbnailHeight()).isEqualTo(224);
+        assertThat(result.dominantColor()).isEqualTo("#0000ff");
+    }
+
+    @Test
+    void smallImageIsNotEnlarged() throws IOException {
+        ImageThumbnails.Result result = ImageThumbnails.process(png(solid(100, 50, Color.GREEN)), 320, MAX_PIXELS);
+
+        assertThat(result.thumbnailWidth()).isEqualTo(100);
+        assertThat(result.thumbnailHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void transparentPixelsBecomeWhite() throws IOException {
+        BufferedImage transparent = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+
+        ImageThumbnails.Result result = ImageThumbnails.process(png(transparent), 320, MAX_PIXELS);
+
+        BufferedImage jpeg = ImageIO.read(new ByteArrayInputStream(result.jpeg()));
+        Color center = new Color(jpeg.getRGB(100, 100));
+        assertThat(center.getRed()).isGreaterThan(250);
+        assertThat(center.getGreen()).isGreaterThan(250);
+        assertThat(center.getBlue()).isGreaterThan(250);
+        assertThat(result.dominantColor()).isEqualTo("#ffffff");
+    }
+
+    // Mais pixels que o limite: recusada pelo cabeçalho, antes de decodificar.
+    @Test
+    void rejectsImagesOverPixelLimit() throws IOException {
+        byte[] source = png(solid(2000, 1000, Color.RED));
+
+        assertThatThrownBy(() -> ImageThumbnails.process(source, 320, 1_999_999))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("2000x1000");
+        assertThat(ImageThumbnails.process(source, 320, 2_000_000).width()).isEqualTo(2000);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThatThrownBy(() -> ImageThumbnails.process("não é imagem".getBytes(), 320, MAX_PIXELS))
+            .isInstanceOf(IOException.class);
+    }
+
+    // A cor predominante é a do balde mais populoso, não a média (que daria um roxo).
+    @Test
+    void dominantColorIsMostPopulousBucket() {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 10, 7);
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 7, 10, 3);
+        g.dispose();
+
+        assertThat(ImageThumbnails.dominantColor(image)).isEqualTo("#ff0000");
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+    private static BufferedImage solid(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
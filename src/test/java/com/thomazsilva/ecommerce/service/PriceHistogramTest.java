@@ -0,0 +1,74 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class PriceHistogramTest {
+
+    @Test
+    void countsInclusiveRangesAndOpenEnds() {
+        PriceHistogram histogram = new PriceHistogram();
+        histogram.add(new BigDecimal("10.00"), 2);
+        histogram.add(new BigDecimal("20.00"), 1);
+        histogram.add(new BigDecimal("30.00"), 4);
+
+        assertThat(histogram.total()).isEqualTo(7);
+        assertThat(histogram.count(new BigDecimal("10"), new BigDecimal("20"))).isEqualTo(3);
+        assertThat(histogram.count(new BigDecimal("20"), null)).isEqualTo(5);
+        assertThat(histogram.count(null, new BigDecimal("19.99"))).isEqualTo(2);
+        assertThat(histogram.count(new BigDecimal("30"), new BigDecimal("10"))).isZero();
+    }
+
+    // Faixas das facetas: o limite inferior entra, o superior fica para a faixa seguinte.
+    @Test
+    void countsHalfOpenFacetRanges() {
+        PriceHistogram histogram = new PriceHistogram();
+        histogram.add(new BigDecimal("49.99"), 1);
+        histogram.add(new BigDecimal("50.00"), 2);
+        histogram.add(new BigDecimal("99.99"), 3);
+        histogram.add(new BigDecimal("100"), 4);
+
+        assertThat(histogram.countFrom(new BigDecimal("0"), new BigDecimal("50"))).isEqualTo(1);
+        assertThat(histogram.countFrom(new BigDecimal("50"), new BigDecimal("100"))).isEqualTo(5);
+        assertThat(histogram.countFrom(new BigDecimal("100"), null)).isEqualTo(4);
+        assertThat(histogram.countFrom(new BigDecimal("100"), new BigDecimal("100"))).isZero();
+    }
+
+    @Test
+    void samePriceWithDifferentScaleSharesBucket() {
+        PriceHistogram histogram = new PriceHistogram();
+        histogram.add(new BigDecimal("10.0"), 1);
+        histogram.add(new BigDecimal("10.00"), 1);
+        histogram.add(new BigDecimal("10"), -1);
+
+        assertThat(histogram.count(new BigDecimal("10.000"), new BigDecimal("10.000"))).isEqualTo(1);
+        assertThat(histogram.total()).isEqualTo(1);
+    }
+
+    @Test
+    void removingUnknownPriceLeavesNoNegativeBucket() {
+        PriceHistogram histogram = new PriceHistogram();
+        histogram.add(new BigDecimal("10.00"), 1);
+        histogram.add(new BigDecimal("99.00"), -1);
+
+        assertThat(histogram.total()).isEqualTo(1);
+        assertThat(histogram.count(new BigDecimal("99"), new BigDecimal("99"))).isZero();
+
+        histogram.add(new BigDecimal("99.00"), 1);
+        assertThat(histogram.count(new BigDecimal("99"), new BigDecimal("99"))).isEqualTo(1);
+        assertThat(histogram.total()).isEqualTo(2);
+    }
+
+    @Test
+    void removingMoreThanStoredClampsAtZero() {
+        PriceHistogram histogram = new PriceHistogram();
+        histogram.add(new BigDecimal("10.00"), 2);
+        histogram.add(new BigDecimal("10.00"), -5);
+
+        assertThat(histogram.total()).isZero();
+        assertThat(histogram.count(null, null)).isZero();
+    }
+}
@@ -0,0 +1,67 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.thomazsilva.ecommerce.repository.PriceCount;
+import com.thomazsilva.ecommerce.repository.ProductFilter;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+class ProductCountEstimatorTest {
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final ProductCountEstimator estimator = new ProductCountEstimator(repository, 10_000);
+
+    @Test
+    void writesDuringReloadAreReplayedOnLoadedHistogram() {
+        when(repository.countByPrice()).thenReturn(List.of(row("10.00", 3)));
+        assertThat(estimator.count(ProductFilter.NONE)).isEqualTo(3);
+
+        // A consulta da recarga leu o banco antes destas escritas terminarem.
+        when(repository.countByPrice()).thenAnswer(invocation -> {
+            estimator.onCreated(new BigDecimal("50.00"));
+            estimator.onDeleted(new BigDecimal("10.00"));
+            return List.of(row("10.00", 3));
+        });
+        estimator.refresh();
+
+        assertThat(estimator.count(ProductFilter.NONE)).isEqualTo(3);
+        assertThat(estimator.count(new ProductFilter(null, new BigDecimal("50"), null))).isEqualTo(1);
+        assertThat(estimator.count(new ProductFilter(null, null, new BigDecimal("10")))).isEqualTo(2);
+    }
+
+    @Test
+    void failedReloadKeepsCurrentHistogram() {
+        when(repository.countByPrice()).thenReturn(List.of(row("10.00", 3)));
+        assertThat(estimator.count(ProductFilter.NONE)).isEqualTo(3);
+
+        when(repository.countByPrice()).thenThrow(new IllegalStateException("banco fora"));
+        assertThatThrownBy(estimator::refresh).isInstanceOf(IllegalStateException.class);
+        assertThat(estimator.count(ProductFilter.NONE)).isEqualTo(3);
+
+        // A carga que falhou não deixa escritas presas no buffer: continuam indo para o histograma.
+        estimator.onCreated(new BigDecimal("10.00"));
+
+        assertThat(estimator.count(ProductFilter.NONE)).isEqualTo(4);
+    }
+
+    private static PriceCount row(String price, long total) {
+        return new PriceCount() {
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
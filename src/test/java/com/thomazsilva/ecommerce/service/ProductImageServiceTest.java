@@ -0,0 +1,135 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.thomazsilva.ecommerce.enums.ImageStatus;
+import com.thomazsilva.ecommerce.model.Product;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// process() chamado direto (sem executor). O primeiro findById é a leitura da imagem; o
+// segundo é a releitura dentro da transação que grava o resultado.
+class ProductImageServiceTest {
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readableImageBecomesReady() throws IOException {
+        writePng("a.png", 640, 480);
+        Product product = pending("a.png");
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+        service().process(1L);
+
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(product.getThumbnailWidth()).isEqualTo(320);
+        assertThat(dir.resolve("images/thumbnails").toFile().list()).hasSize(1);
+        assertThat(processed("ready")).isEqualTo(1);
+    }
+
+    @Test
+    void unreadableImageMarksProductFailed() throws IOException {
+        Files.writeString(dir.resolve("a.png"), "não é imagem");
+        Product product = pending("a.png");
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+        service().process(1L);
+
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.FAILED);
+        assertThat(processed("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void imageOverPixelLimitMarksProductFailed() throws IOException {
+        writePng("a.png", 2000, 1000);
+        Product product = pending("a.png");
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+        service(1_000_000).process(1L);
+
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.FAILED);
+        assertThat(processed("failed")).isEqualTo(1);
+    }
+
+    // A imagem mudou enquanto a anterior era processada: nada é gravado no produto atual, que
+    // continua PENDING para a nova imagem.
+    @Test
+    void imageChangedDuringProcessingIsStale() throws IOException {
+        writePng("a.png", 640, 480);
+        Product current = pending("b.png");
+        when(repository.findById(1L)).thenReturn(Optional.of(pending("a.png")), Optional.of(current));
+
+        service().process(1L);
+
+        assertThat(current.getImageStatus()).isEqualTo(ImageStatus.PENDING);
+        assertThat(current.getThumbnailUrl()).isNull();
+        assertThat(processed("stale")).isEqualTo(1);
+    }
+
+    // Mesmo na falha: o FAILED não é gravado sobre a imagem nova.
+    @Test
+    void failureForReplacedImageIsStale() throws IOException {
+        Files.writeString(dir.resolve("a.png"), "não é imagem");
+        Product current = pending("b.png");
+        when(repository.findById(1L)).thenReturn(Optional.of(pending("a.png")), Optional.of(current));
+
+        service().process(1L);
+
+        assertThat(current.getImageStatus()).isEqualTo(ImageStatus.PENDING);
+        assertThat(processed("stale")).isEqualTo(1);
+        assertThat(processed("failed")).isZero();
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+    private ProductImageService service() {
+        return service(40_000_000);
+    }
+
+    private ProductImageService service(long maxPixels) {
+        return new ProductImageService(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new ThreadPoolTaskExecutor(), new ConcurrentMapCacheManager(), registry, dir, dir.resolve("images"),
+            "/images", Set.of(), 320, DataSize.ofMegabytes(5), maxPixels, Duration.ofSeconds(1));
+    }
+
+    private static Product pending(String imageUrl) {
+        Product product = new Product("Jaqueta jeans");
+        product.setId(1L);
+        product.setImageUrl(imageUrl);
+        return product;
+    }
+
+    private void writePng(String name, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", dir.resolve(name).toFile());
+    }
+
+    private long processed(String result) {
+        var timer = registry.find("product.images.processing").tag("result", result).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
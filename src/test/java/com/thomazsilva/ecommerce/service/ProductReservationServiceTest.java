@@ -0,0 +1,112 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.thomazsilva.ecommerce.enums.Availability;
+import com.thomazsilva.ecommerce.exception.ReservationConflictException;
+import com.thomazsilva.ecommerce.repository.ProductAvailability;
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductReservationServiceTest {
+    private static final Long ID = 7L;
+    private static final Duration GATE_TTL = Duration.ofMillis(200);
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final ProductReservationService service = new ProductReservationService(repository,
+        new ConcurrentMapCacheManager(), new SimpleMeterRegistry(), Duration.ofMinutes(10), GATE_TTL, 500);
+
+    @Test
+    void attemptInFlightRejectsOthersWithoutQuery() throws Exception {
+        CountDownLatch inDatabase = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(repository.tryReserve(eq(ID), any(), any())).thenAnswer(invocation -> {
+            inDatabase.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return Optional.of(Instant.now().plusSeconds(600));
+        });
+
+        CompletableFuture<?> winner = CompletableFuture.runAsync(() -> service.reserve(ID));
+        assertThat(inDatabase.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> service.reserve(ID)).isInstanceOf(ReservationConflictException.class);
+        finish.countDown();
+        winner.get(5, TimeUnit.SECONDS);
+
+        verify(repository, times(1)).tryReserve(eq(ID), any(), any());
+    }
+
+    @Test
+    void lostRaceClosesGateForAtMostGateTtl() throws Exception {
+        when(repository.tryReserve(eq(ID), any(), any())).thenReturn(Optional.empty());
+        when(repository.findAvailabilityById(ID))
+            .thenReturn(Optional.of(availability(Availability.RESERVED, Instant.now().plusSeconds(600))));
+
+        assertThatThrownBy(() -> service.reserve(ID)).isInstanceOf(ReservationConflictException.class);
+        assertThatThrownBy(() -> service.reserve(ID)).isInstanceOf(ReservationConflictException.class);
+        verify(repository, times(1)).tryReserve(eq(ID), any(), any());
+
+        // A reserva vencedora vai até daqui a 10 min, mas o portão reabre depois do gate-ttl:
+        // liberada em outra instância, a peça volta a ser disputada no banco.
+        Thread.sleep(GATE_TTL.toMillis() + 50);
+        when(repository.tryReserve(eq(ID), any(), any())).thenReturn(Optional.of(Instant.now().plusSeconds(600)));
+        assertThat(service.reserve(ID).productId()).isEqualTo(ID);
+        verify(repository, times(2)).tryReserve(eq(ID), any(), any());
+    }
+
+    @Test
+    void releaseReopensGate() {
+        Instant until = Instant.now().plusSeconds(600);
+        when(repository.tryReserve(eq(ID), any(), any())).thenReturn(Optional.of(until));
+        UUID token = service.reserve(ID).token();
+        when(repository.releaseReservation(ID, token)).thenReturn(true);
+
+        service.release(ID, token);
+        service.reserve(ID);
+
+        verify(repository, times(2)).tryReserve(eq(ID), any(), any());
+    }
+
+    @Test
+    void availableAfterLostUpdateLeavesGateOpen() {
+        when(repository.tryReserve(eq(ID), any(), any())).thenReturn(Optional.empty());
+        when(repository.findAvailabilityById(ID)).thenReturn(Optional.of(availability(Availability.AVAILABLE, null)));
+
+        assertThatThrownBy(() -> service.reserve(ID)).isInstanceOf(ReservationConflictException.class);
+        assertThatThrownBy(() -> service.reserve(ID)).isInstanceOf(ReservationConflictException.class);
+
+        verify(repository, times(2)).tryReserve(eq(ID), any(), any());
+    }
+
+    private static ProductAvailability availability(Availability availability, Instant reservedUntil) {
+        return new ProductAvailability() {
+            @Override
+            public Availability getAvailability() {
+                return availability;
+            }
+
+            @Override
+            public Instant getReservedUntil() {
+                return reservedUntil;
+            }
+        };
+    }
+}
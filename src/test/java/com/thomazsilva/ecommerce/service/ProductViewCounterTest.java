@@ -0,0 +1,105 @@
+package com.thomazsilva.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.thomazsilva.ecommerce.repository.ProductRepository;
+import com.thomazsilva.ecommerce.repository.ProductViews;
+
+class ProductViewCounterTest {
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final ProductViewCounter counter = new ProductViewCounter(repository, 1000, 3);
+    // Totais gravados no banco (o que addViews devolve e findMostViewed lê).
+    private final Map<Long, Long> database = new LinkedHashMap<>();
+
+    ProductViewCounterTest() {
+        when(repository.addViews(any(), any())).thenAnswer(invocation -> {
+            long[] ids = invocation.getArgument(0);
+            long[] deltas = invocation.getArgument(1);
+            Map<Long, Long> totals = new LinkedHashMap<>();
+            for (int i = 0; i < ids.length; i++) totals.put(ids[i], database.merge(ids[i], deltas[i], Long::sum));
+            return totals;
+        });
+        when(repository.findMostViewed(any())).thenAnswer(invocation -> database.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()).reversed())
+            .limit(3)
+            .map(entry -> views(entry.getKey(), entry.getValue()))
+            .toList());
+    }
+
+    @Test
+    void flushedTotalsKeepTopKOrderedByViewsThenId() {
+        assertThat(counter.ranking()).isEmpty();
+
+        view(1L, 5);
+        view(2L, 3);
+        view(3L, 3);
+        counter.flush();
+        assertThat(counter.ranking()).containsExactly(1L, 3L, 2L);
+
+        // Entra no top-K e empurra o último para fora; quem já está sobe de posição.
+        view(4L, 4);
+        view(2L, 3);
+        counter.flush();
+        assertThat(counter.ranking()).containsExactly(2L, 1L, 4L);
+
+        // Abaixo do último: fica de fora.
+        view(5L, 1);
+        counter.flush();
+        assertThat(counter.ranking()).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void forgetRemovesProductAndNextFlushRefillsFromDatabase() {
+        counter.ranking();
+        view(1L, 5);
+        view(2L, 4);
+        view(3L, 3);
+        view(4L, 2);
+        counter.flush();
+        assertThat(counter.ranking()).containsExactly(1L, 2L, 3L);
+
+        database.remove(2L);
+        counter.forget(2L);
+        assertThat(counter.ranking()).containsExactly(1L, 3L);
+
+        counter.flush();
+        assertThat(counter.ranking()).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void forgetDropsPendingViews() {
+        counter.ranking();
+        view(1L, 2);
+        counter.forget(1L);
+        counter.flush();
+
+        assertThat(database).doesNotContainKey(1L);
+        assertThat(counter.ranking()).isEmpty();
+    }
+
+    private void view(long id, int times) {
+        for (int i = 0; i < times; i++) counter.record(id);
+    }
+
+    private static ProductViews views(long id, long viewCount) {
+        return new ProductViews() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public long getViewCount() {
+                return viewCount;
+            }
+        };
+    }
+}